@@ -47,7 +47,7 @@ fi
 mkdir -p logs
 
 # Set JVM options
-export JAVA_OPTS="-Xmx2g -Xms1g -XX:+UseG1GC -XX:MaxGCPauseMillis=200"
+export JAVA_OPTS="-Xmx2g -Xms1g -XX:+UseG1GC -XX:MaxGCPauseMillis=200 --enable-preview -Djdk.httpclient.keepalive.timeout=30"
 
 echo ""
 echo "🧵 Starting with Platform Threads..."
@@ -46,7 +46,7 @@ fi
 mkdir -p logs
 
 # Set JVM options for Virtual Threads
-export JAVA_OPTS="-Xmx2g -Xms1g -XX:+UseG1GC -XX:MaxGCPauseMillis=200"
+export JAVA_OPTS="-Xmx2g -Xms1g -XX:+UseG1GC -XX:MaxGCPauseMillis=200 --enable-preview -Djdk.httpclient.keepalive.timeout=30"
 
 echo ""
 echo "🌟 Starting with Virtual Threads..."
@@ -0,0 +1,25 @@
+package com.example.demo.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Outbound engine used by ExternalApiService to reach the external API
+ */
+public interface ExternalApiClient {
+
+    /**
+     * Blocking call, returns the API response for the given request id
+     */
+    Map<String, Object> call(String requestId);
+
+    /**
+     * Non-blocking call; cancelling the returned future aborts the in-flight request
+     */
+    CompletableFuture<Map<String, Object>> callAsync(String requestId);
+
+    /**
+     * Engine name reported in responses and metrics
+     */
+    String getEngine();
+}
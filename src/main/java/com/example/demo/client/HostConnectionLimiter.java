@@ -0,0 +1,58 @@
+package com.example.demo.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking cap on concurrent exchanges to one host.
+ * Waiters get a future instead of parking a thread, and are served in FIFO order.
+ */
+class HostConnectionLimiter {
+
+    private final int maxConnections;
+
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    private int inUse;
+
+    HostConnectionLimiter(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Completes once a connection slot is available. Cancelling a pending future gives up the wait.
+     */
+    synchronized CompletableFuture<Void> acquire() {
+        if (inUse < maxConnections) {
+            inUse++;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.addLast(waiter);
+        return waiter;
+    }
+
+    /**
+     * Hands the slot to the next live waiter, or frees it
+     */
+    void release() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            do {
+                next = waiters.pollFirst();
+            } while (next != null && next.isDone());
+
+            if (next == null) {
+                inUse--;
+                return;
+            }
+        }
+
+        // Complete outside the lock; if the waiter was cancelled meanwhile, pass the slot on
+        if (!next.complete(null)) {
+            release();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.client;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calls the external API over a shared, pooled java.net.http.HttpClient.
+ * Connections are kept alive and reused, HTTP/2 is negotiated when the server supports it,
+ * and concurrent exchanges are capped per host.
+ */
+public class HttpExternalApiClient implements ExternalApiClient, AutoCloseable {
+
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<>() {
+    };
+
+    private final String baseUrl;
+
+    private final Duration requestTimeout;
+
+    private final int maxConnectionsPerHost;
+
+    private final ObjectMapper objectMapper;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HttpClient httpClient;
+
+    private final Map<String, HostConnectionLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+    public HttpExternalApiClient(String baseUrl, Duration connectTimeout, Duration requestTimeout,
+                                 int maxConnectionsPerHost, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public Map<String, Object> call(String requestId) {
+        CompletableFuture<Map<String, Object>> future = callAsync(requestId);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("API call interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("API call failed", e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> callAsync(String requestId) {
+        URI uri = URI.create(baseUrl + "/" + URLEncoder.encode(requestId, StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        HostConnectionLimiter limiter = hostLimiters.computeIfAbsent(
+                uri.getHost() + ":" + uri.getPort(), host -> new HostConnectionLimiter(maxConnectionsPerHost));
+
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        CompletableFuture<Void> permit = limiter.acquire();
+        long startTime = System.nanoTime();
+
+        permit.thenRun(() -> {
+            if (result.isDone()) {
+                limiter.release();
+                return;
+            }
+
+            CompletableFuture<HttpResponse<String>> exchange =
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            exchange.whenComplete((response, error) -> {
+                limiter.release();
+                if (error != null) {
+                    result.completeExceptionally(error instanceof CancellationException
+                            ? error : new RuntimeException("API call failed: " + uri, error));
+                    return;
+                }
+                try {
+                    result.complete(toResponse(requestId, response, startTime));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+        });
+
+        // Stop waiting for a connection slot if the caller gives up first
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                permit.cancel(false);
+            }
+        });
+
+        return result;
+    }
+
+    private Map<String, Object> toResponse(String requestId, HttpResponse<String> httpResponse, long startTime) {
+        if (httpResponse.statusCode() / 100 != 2) {
+            throw new RuntimeException("External API returned HTTP " + httpResponse.statusCode() + " for " + requestId);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.putAll(objectMapper.readValue(httpResponse.body(), JSON_MAP));
+        } catch (Exception e) {
+            throw new RuntimeException("External API returned an unreadable body for " + requestId, e);
+        }
+
+        response.put("requestId", requestId);
+        response.putIfAbsent("status", "success");
+        response.put("httpStatus", httpResponse.statusCode());
+        response.put("httpVersion", httpResponse.version().name());
+        response.put("latency", (System.nanoTime() - startTime) / 1_000_000);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", System.currentTimeMillis());
+        response.put("engine", getEngine());
+
+        return response;
+    }
+
+    @Override
+    public String getEngine() {
+        return "http";
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        executor.shutdownNow();
+    }
+}
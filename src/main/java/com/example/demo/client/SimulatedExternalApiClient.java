@@ -0,0 +1,75 @@
+package com.example.demo.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates the external API with Thread.sleep (the original demo behaviour)
+ */
+public class SimulatedExternalApiClient implements ExternalApiClient, AutoCloseable {
+
+    private final long externalApiDelay;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SimulatedExternalApiClient(long externalApiDelay) {
+        this.externalApiDelay = externalApiDelay;
+    }
+
+    @Override
+    public Map<String, Object> call(String requestId) {
+        try {
+            Thread.sleep(externalApiDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("API call interrupted", e);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("requestId", requestId);
+        response.put("status", "success");
+        response.put("data", "External API response for " + requestId);
+        response.put("timestamp", System.currentTimeMillis());
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("delay", externalApiDelay);
+        response.put("engine", getEngine());
+
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> callAsync(String requestId) {
+        CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(call(requestId));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+
+        // Interrupt the sleeping call when the caller gives up on it
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public String getEngine() {
+        return "simulated";
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
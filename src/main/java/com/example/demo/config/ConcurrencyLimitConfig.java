@@ -0,0 +1,108 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.demo.resilience.AdaptiveConcurrencyLimit;
+import com.example.demo.resilience.ConcurrencyLimitFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adaptive request admission: one AdaptiveConcurrencyLimit per endpoint group in front of the
+ * controllers, so excess load is shed with 503 instead of piling up (virtual) threads on the
+ * blocking downstream paths
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Value("${app.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${app.concurrency-limit.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${app.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${app.concurrency-limit.sample-window:10}")
+    private int sampleWindow;
+
+    @Value("${app.concurrency-limit.long-window:600}")
+    private int longWindow;
+
+    @Value("${app.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${app.concurrency-limit.groups:nested,database,file-io,sleep,blocking-io}") List<String> groups,
+            @Value("${app.concurrency-limit.excluded-groups:metrics,stub}") Set<String> excludedGroups,
+            MeterRegistry meterRegistry) {
+        Map<String, AdaptiveConcurrencyLimit> limits = new HashMap<>();
+        for (String group : groups) {
+            limits.put(group, newLimit(group, meterRegistry));
+        }
+        limits.putIfAbsent(ConcurrencyLimitFilter.DEFAULT_GROUP, newLimit(ConcurrencyLimitFilter.DEFAULT_GROUP, meterRegistry));
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(Map.copyOf(limits), new HashSet<>(excludedGroups)));
+        registration.addUrlPatterns("/api/*");
+        // Ahead of everything else, so shed requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String group, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                smoothing, rttTolerance, sampleWindow, longWindow, backoffRatio);
+
+        Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently admitted")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.rtt", limit, AdaptiveConcurrencyLimit::getShortRttMs)
+                .description("Average RTT of the last sample window")
+                .tags("group", group, "window", "short")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.rtt", limit, AdaptiveConcurrencyLimit::getLongRttMs)
+                .description("Long-term RTT baseline")
+                .tags("group", group, "window", "long")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("concurrency.limit.requests", limit, AdaptiveConcurrencyLimit::getAccepted)
+                .tags("group", group, "outcome", "accepted")
+                .register(meterRegistry);
+        FunctionCounter.builder("concurrency.limit.requests", limit, AdaptiveConcurrencyLimit::getRejected)
+                .tags("group", group, "outcome", "rejected")
+                .register(meterRegistry);
+        FunctionCounter.builder("concurrency.limit.requests", limit, AdaptiveConcurrencyLimit::getDropped)
+                .tags("group", group, "outcome", "dropped")
+                .register(meterRegistry);
+        return limit;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.client.ExternalApiClient;
+import com.example.demo.client.HttpExternalApiClient;
+import com.example.demo.client.SimulatedExternalApiClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+public class ExternalApiClientConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.external-api.client", havingValue = "simulated", matchIfMissing = true)
+    public ExternalApiClient simulatedExternalApiClient(@Value("${app.external-api-delay:2000}") long externalApiDelay) {
+        return new SimulatedExternalApiClient(externalApiDelay);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.external-api.client", havingValue = "http")
+    public ExternalApiClient httpExternalApiClient(
+            @Value("${app.external-api.base-url}") String baseUrl,
+            @Value("${app.external-api.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${app.external-api.request-timeout-ms:10000}") long requestTimeoutMs,
+            @Value("${app.external-api.max-connections-per-host:50}") int maxConnectionsPerHost,
+            ObjectMapper objectMapper) {
+        // Connection keep-alive is the JVM-wide jdk.httpclient.keepalive.timeout, passed at launch
+        return new HttpExternalApiClient(baseUrl, Duration.ofMillis(connectTimeoutMs),
+                Duration.ofMillis(requestTimeoutMs), maxConnectionsPerHost, objectMapper);
+    }
+}
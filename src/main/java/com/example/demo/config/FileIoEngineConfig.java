@@ -0,0 +1,55 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.fileio.AsyncFileChannelIo;
+import com.example.demo.fileio.ChunkedLineProcessor;
+import com.example.demo.fileio.CompressedFileIoEngine;
+import com.example.demo.fileio.NioFileIoEngine;
+import com.example.demo.fileio.StandardFileIoEngine;
+
+/**
+ * Both engines are registered so the benchmark can compare them; FileIOService picks the one
+ * named by app.file-io.engine
+ */
+@Configuration
+public class FileIoEngineConfig {
+
+    @Bean
+    public StandardFileIoEngine standardFileIoEngine() {
+        return new StandardFileIoEngine();
+    }
+
+    @Bean
+    public NioFileIoEngine nioFileIoEngine(
+            @Value("${app.file-io.buffer-size:65536}") int bufferSize,
+            @Value("${app.file-io.buffer-pool-size:16}") int bufferPoolSize,
+            @Value("${app.file-io.mmap-threshold-bytes:1048576}") long mmapThresholdBytes) {
+        return new NioFileIoEngine(bufferSize, bufferPoolSize, mmapThresholdBytes);
+    }
+
+    @Bean
+    public CompressedFileIoEngine compressedFileIoEngine(
+            @Value("${app.file-io.compression.block-size:262144}") int blockSize,
+            @Value("${app.file-io.compression.level:6}") int level) {
+        return new CompressedFileIoEngine(blockSize, level);
+    }
+
+    @Bean
+    public ChunkedLineProcessor chunkedLineProcessor(
+            @Value("${app.file-io.processing.parallelism:0}") int parallelism,
+            @Value("${app.file-io.buffer-size:65536}") int bufferSize,
+            @Value("${app.file-io.processing.chunk-size-bytes:8388608}") long chunkSize) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ChunkedLineProcessor(threads, bufferSize, chunkSize);
+    }
+
+    @Bean
+    public AsyncFileChannelIo asyncFileChannelIo(
+            @Value("${app.file-io.async.threads:4}") int threads,
+            @Value("${app.file-io.async.queue-capacity:1000}") int queueCapacity) {
+        return new AsyncFileChannelIo(threads, queueCapacity);
+    }
+}
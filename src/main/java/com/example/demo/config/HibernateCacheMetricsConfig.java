@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hit ratios for the Hibernate second-level and query caches.
+ * Raw hit/miss counters come from hibernate-micrometer (hibernate.second.level.cache.requests,
+ * hibernate.query.cache.requests).
+ */
+@Configuration
+public class HibernateCacheMetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateCacheHitRatios(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        return registry -> {
+            Gauge.builder("hibernate.cache.hit.ratio", statistics,
+                            hitRatio(Statistics::getSecondLevelCacheHitCount, Statistics::getSecondLevelCacheMissCount))
+                    .tag("cache", "second-level")
+                    .description("Share of second-level cache lookups that were hits")
+                    .register(registry);
+            Gauge.builder("hibernate.cache.hit.ratio", statistics,
+                            hitRatio(Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount))
+                    .tag("cache", "query")
+                    .description("Share of query cache lookups that were hits")
+                    .register(registry);
+        };
+    }
+
+    private static ToDoubleFunction<Statistics> hitRatio(ToDoubleFunction<Statistics> hits,
+                                                         ToDoubleFunction<Statistics> misses) {
+        return statistics -> {
+            double hitCount = hits.applyAsDouble(statistics);
+            double total = hitCount + misses.applyAsDouble(statistics);
+            return total == 0 ? 0.0 : hitCount / total;
+        };
+    }
+}
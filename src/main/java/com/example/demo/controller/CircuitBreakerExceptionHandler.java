@@ -0,0 +1,47 @@
+package com.example.demo.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.demo.resilience.CallNotPermittedException;
+
+/**
+ * Turns a call rejected by an open circuit breaker into 503 with Retry-After, instead of a 500 for
+ * what is a deliberate fast failure. Other exceptions are left to Spring's default error handling.
+ */
+@RestControllerAdvice
+public class CircuitBreakerExceptionHandler {
+
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejection(CallNotPermittedException rejected) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "circuit_open");
+        response.put("circuit", rejected.getCircuitName());
+        response.put("retryAfterMs", rejected.getRetryAfter().toMillis());
+        response.put("timestamp", System.currentTimeMillis());
+
+        long retryAfterSeconds = (long) Math.ceil(rejected.getRetryAfter().toMillis() / 1000.0);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
+
+    /**
+     * A rejection that reached the controller through CompletableFuture.join
+     */
+    @ExceptionHandler(CompletionException.class)
+    public ResponseEntity<Map<String, Object>> handleCompletion(CompletionException e) {
+        if (e.getCause() instanceof CallNotPermittedException rejected) {
+            return handleRejection(rejected);
+        }
+        // Rethrowing the same exception hands it back to Spring's default error handling
+        throw e;
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.demo.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.demo.dto.NameValue;
+import com.example.demo.dto.TestEntityView;
+import com.example.demo.dto.UpdateOutcome;
+import com.example.demo.dto.ValueUpdate;
+import com.example.demo.service.CircuitBreakerRegistry;
+import com.example.demo.service.DatabaseService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RestController
+@RequestMapping("/api/database")
+public class DatabaseController {
+
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
+    private static final int LOOKUP_INSERT_CHUNK = 100_000;
+
+    // Generated rows are held in memory until inserted
+    private static final int MAX_BULK_INSERT_ROWS = 100_000;
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Bulk insert of generated rows in JDBC batches; count is 0 to 100000
+     */
+    @PostMapping("/bulk-insert")
+    public ResponseEntity<Map<String, Object>> bulkInsert(
+            @RequestParam(defaultValue = "bulk") String baseName,
+            @RequestParam(defaultValue = "1000") int count) {
+        if (count < 0 || count > MAX_BULK_INSERT_ROWS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<NameValue> rows = generateRows(baseName, count);
+
+        long startTime = System.nanoTime();
+        int inserted = databaseService.bulkInsert(rows);
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("baseName", baseName);
+        response.put("rowsInserted", inserted);
+        response.put("batchSize", databaseService.getBatchSize());
+        response.put("totalTime", elapsedNanos / 1_000_000);
+        response.put("rowsPerSecond", rowsPerSecond(inserted, elapsedNanos));
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Throughput comparison: one INSERT round trip per row vs. JDBC batches; count is 0 to 100000
+     */
+    @PostMapping("/bulk-insert/compare")
+    public ResponseEntity<Map<String, Object>> compareInsertThroughput(
+            @RequestParam(defaultValue = "compare") String baseName,
+            @RequestParam(defaultValue = "1000") int count) {
+        if (count < 0 || count > MAX_BULK_INSERT_ROWS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long startTime = System.nanoTime();
+        int rowByRowInserted = databaseService.insertRowByRow(generateRows(baseName + "_row", count));
+        long rowByRowNanos = System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        int batchedInserted = databaseService.bulkInsert(generateRows(baseName + "_batch", count));
+        long batchedNanos = System.nanoTime() - startTime;
+
+        double rowByRowRate = rowsPerSecond(rowByRowInserted, rowByRowNanos);
+        double batchedRate = rowsPerSecond(batchedInserted, batchedNanos);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", count);
+        response.put("batchSize", databaseService.getBatchSize());
+        response.put("rowByRowTime", rowByRowNanos / 1_000_000);
+        response.put("rowByRowRowsPerSecond", rowByRowRate);
+        response.put("batchedTime", batchedNanos / 1_000_000);
+        response.put("batchedRowsPerSecond", batchedRate);
+        response.put("speedup", rowByRowRate == 0 ? 0 : batchedRate / rowByRowRate);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bulk value update with optimistic version checks; returns one outcome per row in request order
+     */
+    @PostMapping("/bulk-update")
+    public ResponseEntity<Map<String, Object>> bulkUpdate(@RequestBody List<ValueUpdate> updates) {
+        for (ValueUpdate update : updates) {
+            if (update == null || update.id() == null || update.expectedVersion() == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        long startTime = System.nanoTime();
+        List<UpdateOutcome> outcomes = databaseService.bulkUpdate(updates);
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        Map<UpdateOutcome.Status, Long> summary = new EnumMap<>(UpdateOutcome.Status.class);
+        for (UpdateOutcome outcome : outcomes) {
+            summary.merge(outcome.status(), 1L, Long::sum);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("outcomes", outcomes);
+        response.put("summary", summary);
+        response.put("batchSize", databaseService.getBatchSize());
+        response.put("totalTime", elapsedNanos / 1_000_000);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Keyset-paginated listing, newest first. Follow nextCursor to fetch the next page.
+     * size must be positive; values above 1000 are capped.
+     */
+    @GetMapping("/entities")
+    public ResponseEntity<Map<String, Object>> getEntitiesPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        if (size <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<TestEntityView> page = databaseService.getEntitiesPage(afterCreatedAt, afterId, Math.min(size, 1000));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", page.getContent());
+        response.put("size", page.getNumberOfElements());
+        response.put("hasNext", page.hasNext());
+        if (page.hasContent()) {
+            TestEntityView last = page.getContent().get(page.getNumberOfElements() - 1);
+            Map<String, Object> nextCursor = new HashMap<>();
+            nextCursor.put("afterCreatedAt", last.createdAt());
+            nextCursor.put("afterId", last.id());
+            response.put("nextCursor", nextCursor);
+        }
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rows with the given name, served from the query cache when unchanged
+     */
+    @GetMapping("/entities/by-name")
+    public ResponseEntity<Map<String, Object>> getEntitiesByName(@RequestParam String name) {
+        long startTime = System.nanoTime();
+        List<TestEntityView> matches = circuitBreakers.execute(CircuitBreakerRegistry.DATABASE,
+                () -> databaseService.slowFindByName(name));
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("name", name);
+        response.put("items", matches);
+        response.put("size", matches.size());
+        response.put("totalTime", elapsedNanos / 1_000_000);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Most recent rows, read as projections
+     */
+    @GetMapping("/entities/recent")
+    public ResponseEntity<Map<String, Object>> getRecentEntities(@RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<TestEntityView> recent = databaseService.getRecentEntities(Math.min(limit, 1000));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", recent);
+        response.put("size", recent.size());
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Exports the whole table as a chunked JSON array, written row by row from a database cursor
+     */
+    @GetMapping(value = "/entities/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEntities() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                databaseService.streamAllEntities(entity -> {
+                    try {
+                        objectMapper.writeValue(generator, entity);
+                        if (generator.getOutputContext().getCurrentIndex() % EXPORT_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Word search on test_value via the full-text index
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchByValue(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "100") int limit) {
+        // FT_SEARCH_DATA treats a limit of 0 as no limit
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long startTime = System.nanoTime();
+        List<TestEntityView> results = databaseService.searchByValue(text, Math.min(limit, 1000));
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("text", text);
+        response.put("results", results);
+        response.put("size", results.size());
+        response.put("searchTimeMicros", elapsedNanos / 1_000);
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Lookup latency as the table grows: tops the table up to each size with batched inserts,
+     * then times the indexed lookups against the LIKE scan. Rows are named lookup_N, numbered on
+     * from the highest N already in the table, and lookups draw from every existing lookup_N. Larger sizes (up to 10M) need a
+     * correspondingly large heap, since H2 runs in memory. samples must be at least 1.
+     */
+    @PostMapping("/lookup-benchmark")
+    public ResponseEntity<Map<String, Object>> lookupBenchmark(
+            @RequestParam(defaultValue = "10000,100000") List<Integer> sizes,
+            @RequestParam(defaultValue = "50") int samples) {
+        if (samples < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Map<String, Object>> runs = new ArrayList<>();
+        long lastKey = databaseService.lastGeneratedKey("lookup");
+
+        for (int size : sizes) {
+            long insertStart = System.nanoTime();
+            while (databaseService.countEntities() < size) {
+                int chunk = (int) Math.min(LOOKUP_INSERT_CHUNK, size - databaseService.countEntities());
+                lastKey += databaseService.bulkInsert(generateRows("lookup", lastKey + 1, chunk));
+            }
+            long insertNanos = System.nanoTime() - insertStart;
+
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("rows", databaseService.countEntities());
+            run.put("insertTime", insertNanos / 1_000_000);
+            run.put("lookups", databaseService.measureLookups("lookup",
+                    (int) Math.min(Math.max(lastKey, 1), Integer.MAX_VALUE), samples));
+            runs.add(run);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("samples", samples);
+        response.put("runs", runs);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    private List<NameValue> generateRows(String baseName, int count) {
+        return generateRows(baseName, 1, count);
+    }
+
+    private List<NameValue> generateRows(String baseName, long from, int count) {
+        List<NameValue> rows = new ArrayList<>(count);
+        for (long i = from; i < from + count; i++) {
+            rows.add(new NameValue(baseName + "_" + i, "Value_" + i));
+        }
+        return rows;
+    }
+
+    private double rowsPerSecond(int rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+}
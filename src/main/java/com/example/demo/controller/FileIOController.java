@@ -0,0 +1,225 @@
+package com.example.demo.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.example.demo.service.FileIOService;
+
+@RestController
+@RequestMapping("/api/file-io")
+public class FileIOController {
+
+    private static final int MAX_RANGE_READ = 1_048_576;
+
+    // Tomcat request attributes for handing the body to the connector's sendfile
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private FileIOService fileIOService;
+
+    /**
+     * Serves a file written by FileIOService or BlockingIoService with zero copy.
+     * Supports single byte ranges, If-Range and conditional GET via ETag / Last-Modified.
+     * On Tomcat's NIO connector the body is sent with sendfile; elsewhere it falls back to FileChannel.transferTo.
+     * Files are served as stored: a file written by the compressed engine downloads in its block-compressed
+     * format, and ranges and the ETag refer to those stored bytes. Decoding is out of scope here, as it would
+     * rule out zero copy; /range reads uncompressed content.
+     */
+    @GetMapping("/download/{filename}")
+    public void download(@PathVariable String filename,
+                         @RequestParam(defaultValue = "file-io") String source,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path filePath;
+        try {
+            filePath = fileIOService.resolveDownload(source, filename);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        if (!Files.isRegularFile(filePath)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // Sets 304 plus ETag / Last-Modified when the client copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeStillValid(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    if (start >= size || start > end) {
+                        throw new IllegalArgumentException("Range not satisfiable: " + range);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            // Multiple ranges are answered with the whole file, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, filePath.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    /**
+     * Random-access read of a byte range, decompressing only the blocks it needs for compressed files
+     */
+    @GetMapping("/range/{filename}")
+    public ResponseEntity<Map<String, Object>> readRange(
+            @PathVariable String filename,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "4096") int length) {
+        if (offset < 0 || length < 0 || length > MAX_RANGE_READ) {
+            return ResponseEntity.badRequest().build();
+        }
+        Path filePath;
+        try {
+            filePath = fileIOService.resolveDownload("file-io", filename);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!Files.isRegularFile(filePath)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(fileIOService.readRange(filePath, offset, length));
+    }
+
+    /**
+     * Generates a file with lineCount lines and returns line statistics computed over it
+     */
+    @PostMapping("/process")
+    public ResponseEntity<Map<String, Object>> processLargeFile(
+            @RequestParam(defaultValue = "large-file.txt") String filename,
+            @RequestParam(defaultValue = "100000") int lineCount) {
+        try {
+            return ResponseEntity.ok(fileIOService.processLargeFile(filename, lineCount));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Write-then-read of count files, run concurrently up to the configured bound
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> multipleFileOperations(
+            @RequestParam(defaultValue = "batch") String baseFilename,
+            @RequestParam(defaultValue = "10") int count) {
+        try {
+            return ResponseEntity.ok(fileIOService.performMultipleFileOperations(baseFilename, count));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Deletes the temp files created under a filename prefix, e.g. "batch" for batch_1.txt
+     */
+    @DeleteMapping("/temp-files")
+    public ResponseEntity<Map<String, Object>> cleanupTempFiles(@RequestParam String prefix) {
+        return ResponseEntity.ok(fileIOService.cleanupTempFiles(prefix));
+    }
+
+    /**
+     * Compares the file I/O engines across payload sizes (default 1 KB, 1 MB, 64 MB; 1 GB needs a large heap)
+     */
+    @PostMapping("/benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkEngines(
+            @RequestParam(defaultValue = "1024,1048576,67108864") List<Long> sizes,
+            @RequestParam(defaultValue = "5") int iterations) {
+        return ResponseEntity.ok(fileIOService.benchmarkEngines(sizes, iterations));
+    }
+
+    /**
+     * If-Range: the Range header only applies when the client's validator still matches
+     */
+    private boolean rangeStillValid(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.demo.controller;
 
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.demo.service.FanOutService;
 import com.example.demo.service.ServiceA;
 import com.example.demo.service.ServiceB;
 import com.example.demo.service.ServiceC;
@@ -29,6 +32,9 @@ public class NestedController {
     @Autowired
     private ServiceC serviceC;
 
+    @Autowired
+    private FanOutService fanOutService;
+
     /**
      * Basic nested call: Controller -> Service A -> Service B -> Service C
      */
@@ -140,14 +146,31 @@ public class NestedController {
         
         long startTime = System.currentTimeMillis();
         
-        // Start with Service A complex operation
-        Map<String, Object> serviceAResult = serviceA.performComplexServiceAOperation(requestId + "_chain", serviceBCallCount);
-        
-        // Add Service C with multiple external calls
-        Map<String, Object> serviceCResult = serviceC.performServiceCWithMultipleExternalCalls(requestId + "_chain", apiCallCount);
+        Map<String, Object> serviceAResult;
+        Map<String, Object> serviceCResult;
+        Map<String, Object> serviceBResult;
         
-        // Add Service B with database
-        Map<String, Object> serviceBResult = serviceB.performServiceBWithDatabase(requestId + "_chain");
+        if (fanOutService.isEnabled()) {
+            // The three branches are independent: latency becomes the slowest branch, not the sum
+            List<Callable<Map<String, Object>>> branches = List.of(
+                    () -> serviceA.performComplexServiceAOperation(requestId + "_chain", serviceBCallCount),
+                    () -> serviceC.performServiceCWithMultipleExternalCalls(requestId + "_chain", apiCallCount),
+                    () -> serviceB.performServiceBWithDatabase(requestId + "_chain"));
+            
+            List<Map<String, Object>> results = fanOutService.invokeAll(branches);
+            serviceAResult = results.get(0);
+            serviceCResult = results.get(1);
+            serviceBResult = results.get(2);
+        } else {
+            // Start with Service A complex operation
+            serviceAResult = serviceA.performComplexServiceAOperation(requestId + "_chain", serviceBCallCount);
+            
+            // Add Service C with multiple external calls
+            serviceCResult = serviceC.performServiceCWithMultipleExternalCalls(requestId + "_chain", apiCallCount);
+            
+            // Add Service B with database
+            serviceBResult = serviceB.performServiceBWithDatabase(requestId + "_chain");
+        }
         
         long endTime = System.currentTimeMillis();
         
@@ -159,6 +182,7 @@ public class NestedController {
         response.put("serviceCResult", serviceCResult);
         response.put("serviceBCallCount", serviceBCallCount);
         response.put("apiCallCount", apiCallCount);
+        response.put("executionMode", fanOutService.isEnabled() ? "fan-out" : "sequential");
         response.put("totalChainTime", endTime - startTime);
         response.put("threadName", Thread.currentThread().getName());
         response.put("timestamp", endTime);
@@ -1,10 +1,13 @@
 package com.example.demo.controller;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,6 +23,17 @@ import com.example.demo.service.RateLimitService;
 @RequestMapping("/api/sleep")
 public class SleepController {
 
+    // Benchmarks run on the live server, so a request is kept to about a minute and bounded memory
+    private static final int MAX_BENCHMARK_RUNS = 8;
+
+    private static final int MAX_BENCHMARK_THREADS = 64;
+
+    private static final long MAX_BENCHMARK_DURATION_MS = 10_000;
+
+    private static final int MAX_BENCHMARK_WINDOW_KEYS = 100_000;
+
+    private static final int MAX_BENCHMARK_CHURN_KEYS = 5_000_000;
+
     @Autowired
     private PollingService pollingService;
 
@@ -179,12 +193,35 @@ public class SleepController {
     public ResponseEntity<Map<String, Object>> performTokenBucketOperation(
             @PathVariable String bucketId,
             @RequestParam(defaultValue = "3") int maxTokens,
-            @RequestParam(defaultValue = "1000") long tokenRefillTime) {
-        
-        Map<String, Object> response = rateLimitService.performTokenBucketOperation(bucketId, maxTokens, tokenRefillTime);
+            @RequestParam(defaultValue = "1000") long tokenRefillTime,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        if (maxTokens <= 0 || tokenRefillTime < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, Object> response = rateLimitService.performTokenBucketOperation(bucketId, maxTokens, tokenRefillTime, waitMs);
+        if ("rate_limited".equals(response.get("status"))) {
+            long retryAfterSeconds = (long) Math.ceil((long) response.get("retryAfterMs") / 1000.0);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Token bucket acquire throughput across thread counts
+     */
+    @PostMapping("/token-bucket/benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkTokenBucket(
+            @RequestParam(defaultValue = "1,2,4,8,16,32,64") List<Integer> threads,
+            @RequestParam(defaultValue = "1000") long durationMs) {
+        if (!isValidBenchmarkRun(threads, durationMs)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(rateLimitService.benchmarkTokenBucket(threads, durationMs));
+    }
+
     /**
      * Sliding window rate limiting
      */
@@ -193,20 +230,73 @@ public class SleepController {
             @PathVariable String windowId,
             @RequestParam(defaultValue = "10") int maxRequests,
             @RequestParam(defaultValue = "60000") long windowSizeMs) {
-        
+        if (maxRequests <= 0 || windowSizeMs <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
         Map<String, Object> response = rateLimitService.performSlidingWindowOperation(windowId, maxRequests, windowSizeMs);
+        if (Boolean.TRUE.equals(response.get("rateLimited"))) {
+            long retryAfterSeconds = (long) Math.ceil((long) response.get("retryAfterMs") / 1000.0);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Circuit breaker operation
+     * Sliding window check throughput across thread counts
+     */
+    @PostMapping("/sliding-window/benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkSlidingWindow(
+            @RequestParam(defaultValue = "1,2,4,8,16,32,64") List<Integer> threads,
+            @RequestParam(defaultValue = "64") int keys,
+            @RequestParam(defaultValue = "1000") long durationMs) {
+        if (!isValidBenchmarkRun(threads, durationMs) || keys <= 0 || keys > MAX_BENCHMARK_WINDOW_KEYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(rateLimitService.benchmarkSlidingWindow(threads, keys, durationMs));
+    }
+
+    /**
+     * Memory of the keyed limiter registry while millions of distinct ids pass through it
+     */
+    @PostMapping("/limiter-registry/benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkLimiterKeyChurn(
+            @RequestParam(defaultValue = "1000000") int keys) {
+        if (keys <= 0 || keys > MAX_BENCHMARK_CHURN_KEYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(rateLimitService.benchmarkKeyChurn(keys));
+    }
+
+    /**
+     * One to MAX_BENCHMARK_RUNS thread counts, each between 1 and MAX_BENCHMARK_THREADS, and a
+     * duration of at most MAX_BENCHMARK_DURATION_MS per thread count
+     */
+    private static boolean isValidBenchmarkRun(List<Integer> threads, long durationMs) {
+        if (threads.isEmpty() || threads.size() > MAX_BENCHMARK_RUNS || durationMs <= 0 || durationMs > MAX_BENCHMARK_DURATION_MS) {
+            return false;
+        }
+        return threads.stream().allMatch(count -> count != null && count > 0 && count <= MAX_BENCHMARK_THREADS);
+    }
+
+    /**
+     * Operation through a circuit breaker; 503 while the circuit is open
      */
     @GetMapping("/circuit-breaker/{circuitId}")
     public ResponseEntity<Map<String, Object>> performCircuitBreakerOperation(
             @PathVariable String circuitId,
-            @RequestParam(defaultValue = "2000") long backoffTime) {
+            @RequestParam(defaultValue = "2000") long backoffTime,
+            @RequestParam(defaultValue = "0") double failureRate) {
         
-        Map<String, Object> response = rateLimitService.performCircuitBreakerOperation(circuitId, backoffTime);
+        Map<String, Object> response = rateLimitService.performCircuitBreakerOperation(circuitId, backoffTime, failureRate);
+        if ("circuit_open".equals(response.get("status"))) {
+            long retryAfterSeconds = (long) Math.ceil((long) response.get("retryAfterMs") / 1000.0);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
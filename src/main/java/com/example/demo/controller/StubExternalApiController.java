@@ -0,0 +1,63 @@
+package com.example.demo.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Local stand-in for the external API, used as the target of the HTTP client engine
+ */
+@RestController
+@RequestMapping("/api/stub/external")
+public class StubExternalApiController {
+
+    @Value("${app.external-api-delay:2000}")
+    private long externalApiDelay;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    /**
+     * Responds after the configured external API delay
+     */
+    @GetMapping("/{requestId}")
+    public ResponseEntity<Map<String, Object>> respond(@PathVariable String requestId) {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(externalApiDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Stub API interrupted", e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("requestId", requestId);
+        response.put("status", "success");
+        response.put("data", "External API response for " + requestId);
+        response.put("delay", externalApiDelay);
+        response.put("stubThreadName", Thread.currentThread().getName());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Most requests the stub has been answering at once since the last reset
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public void resetPeakInFlight() {
+        peakInFlight.set(inFlight.get());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * One row for the bulk insert API
+ */
+public record NameValue(String name, String value) {
+}
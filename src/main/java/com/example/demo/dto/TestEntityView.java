@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.TestEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a test_data row. Projection queries build it straight from the result set,
+ * so no managed entity is created or dirty-checked.
+ */
+public record TestEntityView(Long id, String name, String value, LocalDateTime createdAt, String threadName,
+                             Long version) {
+
+    public static TestEntityView from(TestEntity entity) {
+        return new TestEntityView(entity.getId(), entity.getName(), entity.getValue(),
+                entity.getCreatedAt(), entity.getThreadName(), entity.getVersion());
+    }
+}
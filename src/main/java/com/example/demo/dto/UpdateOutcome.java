@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+/**
+ * Result of one row in a bulk update. version is the row's version after the call
+ * (the new version if updated, the current one on conflict, null if the row does not exist).
+ */
+public record UpdateOutcome(Long id, Status status, Long version) {
+
+    public enum Status {
+        UPDATED,
+        CONFLICT,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * One change for the bulk update API; applied only if the row is still at expectedVersion
+ */
+public record ValueUpdate(Long id, String value, Long expectedVersion) {
+}
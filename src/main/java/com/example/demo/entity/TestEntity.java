@@ -1,14 +1,26 @@
 package com.example.demo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "test_data")
+@Table(name = "test_data", indexes = {
+        // Backs keyset pagination, the recent-entries ordering and created_at range lookups
+        @Index(name = "idx_test_data_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_test_data_name", columnList = "name"),
+        @Index(name = "idx_test_data_thread_name", columnList = "thread_name")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class TestEntity {
     
+    // Sequence ids keep JDBC insert batching possible; allocationSize > 1 enables the pooled optimizer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_data_seq")
+    @SequenceGenerator(name = "test_data_seq", sequenceName = "test_data_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "name")
@@ -23,6 +35,11 @@ public class TestEntity {
     @Column(name = "thread_name")
     private String threadName;
     
+    // Optimistic lock; bumped on every update, including the JDBC bulk update path
+    @Version
+    @Column(name = "version")
+    private Long version;
+    
     public TestEntity() {
         this.createdAt = LocalDateTime.now();
         this.threadName = Thread.currentThread().getName();
@@ -74,4 +91,12 @@ public class TestEntity {
     public void setThreadName(String threadName) {
         this.threadName = threadName;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Whole-file reads and writes on AsynchronousFileChannel, returning futures instead of blocking.
+ * The channels run their I/O and completion handlers on a dedicated, bounded pool, so file I/O never
+ * occupies the caller's thread (or a virtual thread's carrier); when the pool's queue is full the
+ * returned future fails instead of the work piling up.
+ */
+public class AsyncFileChannelIo implements AutoCloseable {
+
+    private static final Set<StandardOpenOption> WRITE_OPTIONS =
+            EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    private static final Set<StandardOpenOption> READ_OPTIONS = EnumSet.of(StandardOpenOption.READ);
+
+    private final ThreadPoolExecutor executor;
+
+    public AsyncFileChannelIo(int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "async-file-io-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Creates or replaces the file; completes with the number of bytes written
+     */
+    public CompletableFuture<Long> write(Path path, byte[] content) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, WRITE_OPTIONS, executor);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        CompletionHandler<Integer, Void> handler = new CompletionHandler<>() {
+            @Override
+            public void completed(Integer written, Void attachment) {
+                if (buffer.hasRemaining()) {
+                    // Partial write: continue from where it stopped
+                    submit(() -> channel.write(buffer, buffer.position(), null, this), channel, result);
+                    return;
+                }
+                closeQuietly(channel);
+                result.complete((long) content.length);
+            }
+
+            @Override
+            public void failed(Throwable error, Void attachment) {
+                closeQuietly(channel);
+                result.completeExceptionally(error);
+            }
+        };
+        submit(() -> channel.write(buffer, 0, null, handler), channel, result);
+        return result;
+    }
+
+    /**
+     * Reads the whole file (at most 2 GB)
+     */
+    public CompletableFuture<byte[]> read(Path path) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, READ_OPTIONS, executor);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletionHandler<Integer, Void> handler = new CompletionHandler<>() {
+            @Override
+            public void completed(Integer read, Void attachment) {
+                if (read >= 0 && buffer.hasRemaining()) {
+                    submit(() -> channel.read(buffer, buffer.position(), null, this), channel, result);
+                    return;
+                }
+                closeQuietly(channel);
+                // A file truncated while being read yields only the bytes that were there
+                result.complete(buffer.hasRemaining()
+                        ? Arrays.copyOf(buffer.array(), buffer.position())
+                        : buffer.array());
+            }
+
+            @Override
+            public void failed(Throwable error, Void attachment) {
+                closeQuietly(channel);
+                result.completeExceptionally(error);
+            }
+        };
+        submit(() -> channel.read(buffer, 0, null, handler), channel, result);
+        return result;
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Starts an async operation; a full pool rejects it synchronously, which fails the result
+     */
+    private void submit(Runnable operation, AsynchronousFileChannel channel, CompletableFuture<?> result) {
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void closeQuietly(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing was buffered, so a failed close loses no data
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
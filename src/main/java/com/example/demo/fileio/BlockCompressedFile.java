@@ -0,0 +1,321 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random-access reader for files written by BlockCompressedOutputStream.
+ * <p>
+ * Layout: a header {int magic}, the blocks (raw deflate, or stored when compression did not help),
+ * then one index entry per block {long offset, int length (negative = stored), int uncompressed length,
+ * int CRC32}, then a footer {long index offset, int block count, int block size, long uncompressed size,
+ * int magic}. Every block but the last holds exactly block-size uncompressed bytes, so the block for an
+ * uncompressed position is found by division and only that block is read and inflated.
+ * Footer and index entries are checked before use; a damaged file fails with IOException.
+ * Safe for concurrent use: reads are positional and each call uses its own Inflater.
+ */
+public class BlockCompressedFile implements AutoCloseable {
+
+    static final int MAGIC = 0x42434631; // "BCF1"
+
+    static final int HEADER_BYTES = 4;
+
+    static final int INDEX_ENTRY_BYTES = 20;
+
+    static final int FOOTER_BYTES = 28;
+
+    /**
+     * Largest block size accepted from a footer, so a damaged one cannot ask for a huge buffer
+     */
+    static final int MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    private final Source source;
+
+    private final ByteBuffer index;
+
+    private final long indexOffset;
+
+    private final int blockCount;
+
+    private final int blockSize;
+
+    private final long uncompressedSize;
+
+    private final long compressedSize;
+
+    private BlockCompressedFile(Source source, ByteBuffer index, long indexOffset, int blockCount, int blockSize,
+                                long uncompressedSize, long compressedSize) {
+        this.source = source;
+        this.index = index;
+        this.indexOffset = indexOffset;
+        this.blockCount = blockCount;
+        this.blockSize = blockSize;
+        this.uncompressedSize = uncompressedSize;
+        this.compressedSize = compressedSize;
+    }
+
+    public static BlockCompressedFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return open(new ChannelSource(channel), path.toString());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reader over a whole file already in memory, e.g. one loaded with asynchronous I/O
+     */
+    public static BlockCompressedFile wrap(byte[] content) throws IOException {
+        return open(new ArraySource(content), "in-memory content");
+    }
+
+    private static BlockCompressedFile open(Source source, String name) throws IOException {
+        long fileSize = source.size();
+        if (!hasMagic(source)) {
+            throw new IOException("Not a block-compressed file: " + name);
+        }
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+        readFully(source, footer, fileSize - FOOTER_BYTES);
+        long indexOffset = footer.getLong(0);
+        int blockCount = footer.getInt(8);
+        int blockSize = footer.getInt(12);
+        long uncompressedSize = footer.getLong(16);
+
+        if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE
+                || blockCount < 0 || blockCount > (Integer.MAX_VALUE - FOOTER_BYTES) / INDEX_ENTRY_BYTES
+                || indexOffset < HEADER_BYTES
+                || indexOffset + (long) blockCount * INDEX_ENTRY_BYTES + FOOTER_BYTES != fileSize) {
+            throw new IOException("Corrupt block-compressed footer in " + name);
+        }
+        // Every block but the last is full, and the last holds at least one byte
+        long maxSize = (long) blockCount * blockSize;
+        long minSize = blockCount == 0 ? 0 : maxSize - blockSize + 1;
+        if (uncompressedSize < minSize || uncompressedSize > maxSize) {
+            throw new IOException("Corrupt block-compressed footer in " + name);
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_BYTES);
+        readFully(source, index, indexOffset);
+        return new BlockCompressedFile(source, index, indexOffset, blockCount, blockSize, uncompressedSize, fileSize);
+    }
+
+    /**
+     * True if the file carries this format's header and footer magic. The header is written before
+     * any content, so a plain file is only taken for a compressed one if it starts and ends with "BCF1".
+     */
+    public static boolean isBlockCompressed(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return hasMagic(new ChannelSource(channel));
+        }
+    }
+
+    public static boolean isBlockCompressed(byte[] content) throws IOException {
+        return hasMagic(new ArraySource(content));
+    }
+
+    private static boolean hasMagic(Source source) throws IOException {
+        long size = source.size();
+        if (size < HEADER_BYTES + FOOTER_BYTES) {
+            return false;
+        }
+        ByteBuffer magic = ByteBuffer.allocate(4);
+        readFully(source, magic, 0);
+        if (magic.getInt(0) != MAGIC) {
+            return false;
+        }
+        magic.clear();
+        readFully(source, magic, size - 4);
+        return magic.getInt(0) == MAGIC;
+    }
+
+    public long uncompressedSize() {
+        return uncompressedSize;
+    }
+
+    public long compressedSize() {
+        return compressedSize;
+    }
+
+    public int blockCount() {
+        return blockCount;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Index of the block holding the given uncompressed position
+     */
+    public int blockAt(long position) {
+        return (int) (position / blockSize);
+    }
+
+    /**
+     * Uncompressed position of the first byte of the block
+     */
+    public long blockStart(int block) {
+        return (long) block * blockSize;
+    }
+
+    /**
+     * Decompresses one block into dst (at least blockSize long), returns its uncompressed length
+     */
+    public int readBlock(int block, byte[] dst) throws IOException {
+        int entry = block * INDEX_ENTRY_BYTES;
+        long offset = index.getLong(entry);
+        int length = index.getInt(entry + 8);
+        int uncompressedLength = index.getInt(entry + 12);
+        int checksum = index.getInt(entry + 16);
+
+        boolean stored = length < 0;
+        long storedLength = Math.abs((long) length);
+        if (uncompressedLength <= 0 || uncompressedLength > blockSize || offset < HEADER_BYTES
+                || offset + storedLength > indexOffset || (stored && storedLength != uncompressedLength)) {
+            throw new IOException("Corrupt index entry for block " + block);
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) storedLength);
+        readFully(source, data, offset);
+
+        if (stored) {
+            System.arraycopy(data.array(), 0, dst, 0, uncompressedLength);
+        } else {
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(data.array());
+                int inflated = 0;
+                while (inflated < uncompressedLength && !inflater.finished()) {
+                    int count = inflater.inflate(dst, inflated, uncompressedLength - inflated);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += count;
+                }
+                if (inflated != uncompressedLength) {
+                    throw new IOException("Truncated block " + block);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt block " + block, e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(dst, 0, uncompressedLength);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum mismatch in block " + block);
+        }
+        return uncompressedLength;
+    }
+
+    /**
+     * Reads up to length uncompressed bytes starting at position, inflating only the blocks that
+     * overlap the range. Returns the number of bytes read, or -1 at end of file.
+     */
+    public int read(long position, byte[] dst, int offset, int length) throws IOException {
+        if (position >= uncompressedSize) {
+            return -1;
+        }
+        length = (int) Math.min(length, uncompressedSize - position);
+
+        byte[] block = new byte[blockSize];
+        int copied = 0;
+        while (copied < length) {
+            long current = position + copied;
+            int blockIndex = blockAt(current);
+            int blockLength = readBlock(blockIndex, block);
+            int from = (int) (current - blockStart(blockIndex));
+            int count = Math.min(blockLength - from, length - copied);
+            System.arraycopy(block, from, dst, offset + copied, count);
+            copied += count;
+        }
+        return copied;
+    }
+
+    /**
+     * The whole uncompressed content (at most 2 GB)
+     */
+    public byte[] readAll() throws IOException {
+        byte[] bytes = new byte[Math.toIntExact(uncompressedSize)];
+        int length = 0;
+        while (length < bytes.length) {
+            length += read(length, bytes, length, bytes.length - length);
+        }
+        return bytes;
+    }
+
+    private static void readFully(Source source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of block-compressed file");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Positional reads over the stored bytes
+     */
+    private interface Source {
+
+        long size() throws IOException;
+
+        int read(ByteBuffer dst, long position) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private record ChannelSource(FileChannel channel) implements Source {
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private record ArraySource(byte[] content) implements Source {
+
+        @Override
+        public long size() {
+            return content.length;
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) {
+            if (position >= content.length) {
+                return -1;
+            }
+            int count = (int) Math.min(dst.remaining(), content.length - position);
+            dst.put(content, (int) position, count);
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
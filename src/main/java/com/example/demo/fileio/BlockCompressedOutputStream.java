@@ -0,0 +1,141 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the block-compressed format read by BlockCompressedFile. Input is cut into fixed-size
+ * blocks that are deflated independently, so any block can later be decompressed on its own;
+ * the block index and footer are appended on close. Blocks that do not shrink are stored as is.
+ */
+public class BlockCompressedOutputStream extends OutputStream {
+
+    private final OutputStream out;
+
+    private final byte[] block;
+
+    private final Deflater deflater;
+
+    private final CRC32 crc = new CRC32();
+
+    private byte[] compressed;
+
+    private int blockLength;
+
+    private long compressedOffset;
+
+    private long uncompressedSize;
+
+    /**
+     * Index entries of BlockCompressedFile.INDEX_ENTRY_BYTES each, grown as blocks are written
+     */
+    private ByteBuffer index = ByteBuffer.allocate(BlockCompressedFile.INDEX_ENTRY_BYTES * 64);
+
+    private int blockCount;
+
+    private boolean closed;
+
+    /**
+     * Writes the header right away, so even an unfinished file is recognisable as this format
+     */
+    public BlockCompressedOutputStream(OutputStream out, int blockSize, int level) throws IOException {
+        if (blockSize <= 0 || blockSize > BlockCompressedFile.MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize must be between 1 and " + BlockCompressedFile.MAX_BLOCK_SIZE);
+        }
+        out.write(ByteBuffer.allocate(BlockCompressedFile.HEADER_BYTES).putInt(BlockCompressedFile.MAGIC).array());
+        this.out = out;
+        this.block = new byte[blockSize];
+        this.compressed = new byte[blockSize];
+        this.deflater = new Deflater(level, true);
+        this.compressedOffset = BlockCompressedFile.HEADER_BYTES;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        if (blockLength == block.length) {
+            flushBlock();
+        }
+        block[blockLength++] = (byte) value;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (blockLength == block.length) {
+                flushBlock();
+            }
+            int count = Math.min(length, block.length - blockLength);
+            System.arraycopy(bytes, offset, block, blockLength, count);
+            blockLength += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockLength == 0) {
+            return;
+        }
+
+        deflater.reset();
+        deflater.setInput(block, 0, blockLength);
+        deflater.finish();
+        int compressedLength = 0;
+        // Stop as soon as the output reaches the input size; such a block is stored uncompressed
+        while (!deflater.finished() && compressedLength < blockLength) {
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        crc.reset();
+        crc.update(block, 0, blockLength);
+
+        boolean stored = !deflater.finished() || compressedLength >= blockLength;
+        int storedLength = stored ? blockLength : compressedLength;
+        out.write(stored ? block : compressed, 0, storedLength);
+
+        if (index.remaining() < BlockCompressedFile.INDEX_ENTRY_BYTES) {
+            index = ByteBuffer.allocate(index.capacity() * 2).put(index.flip());
+        }
+        index.putLong(compressedOffset)
+                .putInt(stored ? -storedLength : storedLength)
+                .putInt(blockLength)
+                .putInt((int) crc.getValue());
+
+        compressedOffset += storedLength;
+        uncompressedSize += blockLength;
+        blockCount++;
+        blockLength = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // Partial blocks are only written on close, so every block but the last is full size
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushBlock();
+
+            out.write(index.array(), 0, index.position());
+            ByteBuffer footer = ByteBuffer.allocate(BlockCompressedFile.FOOTER_BYTES)
+                    .putLong(compressedOffset)
+                    .putInt(blockCount)
+                    .putInt(block.length)
+                    .putLong(uncompressedSize)
+                    .putInt(BlockCompressedFile.MAGIC);
+            out.write(footer.array());
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes LineStatistics for files of any size. The file is cut into chunks that end on a line
+ * break, and chunks are scanned in parallel on a dedicated fork-join pool. Each scan reads its range
+ * through one pooled direct buffer and works on raw bytes, so no line Strings are created and memory
+ * use is bounded by parallelism x buffer size, not by file size.
+ * Block-compressed files are processed the same way over their uncompressed content, one
+ * inflated block at a time.
+ */
+public class ChunkedLineProcessor implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    private final DirectBufferPool bufferPool;
+
+    private final long chunkSize;
+
+    public ChunkedLineProcessor(int parallelism, int bufferSize, long chunkSize) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.bufferPool = new DirectBufferPool(bufferSize, parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    public LineStatistics process(Path path) throws IOException {
+        if (BlockCompressedFile.isBlockCompressed(path)) {
+            return processCompressed(path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<long[]> chunks = splitAtLineBreaks(channel.size(),
+                    (probe, position) -> channel.read(ByteBuffer.wrap(probe), position));
+            if (chunks.isEmpty()) {
+                return LineStatistics.EMPTY;
+            }
+            return pool.invoke(new ChunkTask((start, end) -> scan(channel, start, end), chunks, 0, chunks.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Same statistics over the uncompressed content; each chunk inflates only its own blocks
+     */
+    private LineStatistics processCompressed(Path path) throws IOException {
+        try (BlockCompressedFile file = BlockCompressedFile.open(path)) {
+            List<long[]> chunks = splitAtLineBreaks(file.uncompressedSize(),
+                    (probe, position) -> file.read(position, probe, 0, probe.length));
+            if (chunks.isEmpty()) {
+                return LineStatistics.EMPTY;
+            }
+            return pool.invoke(new ChunkTask((start, end) -> scan(file, start, end), chunks, 0, chunks.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Chunk ranges as {start, end}; every chunk but the last ends just after a '\n'
+     */
+    private List<long[]> splitAtLineBreaks(long size, ProbeReader reader) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        byte[] probe = new byte[8192];
+
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            // Push the cut forward to the next line break so no line spans two chunks
+            while (end < size) {
+                int read = reader.read(probe, end);
+                if (read <= 0) {
+                    end = size;
+                    break;
+                }
+                int newline = indexOf(probe, (byte) '\n', read);
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private LineStatistics scan(FileChannel channel, long start, long end) {
+        ByteBuffer buffer = bufferPool.acquire();
+        // Bulk-copied out of the direct buffer; scanning a heap array is much faster than per-byte get()
+        byte[] scratch = new byte[buffer.capacity()];
+        LineScanner scanner = new LineScanner();
+        try {
+            long position = start;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                buffer.get(0, scratch, 0, read);
+                for (int i = 0; i < read; i++) {
+                    scanner.accept(scratch[i]);
+                }
+                position += read;
+            }
+            return scanner.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private LineStatistics scan(BlockCompressedFile file, long start, long end) {
+        byte[] block = new byte[file.blockSize()];
+        LineScanner scanner = new LineScanner();
+        try {
+            for (int index = file.blockAt(start); index < file.blockCount() && file.blockStart(index) < end; index++) {
+                int length = file.readBlock(index, block);
+                long blockStart = file.blockStart(index);
+                int from = (int) Math.max(0, start - blockStart);
+                int to = (int) Math.min(length, end - blockStart);
+                for (int i = from; i < to; i++) {
+                    scanner.accept(block[i]);
+                }
+            }
+            return scanner.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface ProbeReader {
+
+        int read(byte[] probe, long position) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RangeScanner {
+
+        LineStatistics scan(long start, long end);
+    }
+
+    // ForkJoinTask is Serializable, but tasks only ever run in the pool
+    @SuppressWarnings("serial")
+    private static class ChunkTask extends RecursiveTask<LineStatistics> {
+
+        private final RangeScanner scanner;
+
+        private final List<long[]> chunks;
+
+        private final int from;
+
+        private final int to;
+
+        ChunkTask(RangeScanner scanner, List<long[]> chunks, int from, int to) {
+            this.scanner = scanner;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LineStatistics compute() {
+            if (to - from == 1) {
+                long[] chunk = chunks.get(from);
+                return scanner.scan(chunk[0], chunk[1]);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask right = new ChunkTask(scanner, chunks, middle, to);
+            right.fork();
+            LineStatistics left = new ChunkTask(scanner, chunks, from, middle).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    /**
+     * Byte-at-a-time line/word state machine for one chunk
+     */
+    private static final class LineScanner {
+
+        private long lines;
+        private long blankLines;
+        private long words;
+        private long bytes;
+        private long minLineLength = Long.MAX_VALUE;
+        private long maxLineLength;
+        private long totalLineLength;
+
+        private long lineLength;
+        private boolean lineHasContent;
+        private boolean inWord;
+        private boolean pendingCarriageReturn;
+
+        void accept(byte value) {
+            bytes++;
+            if (value == '\n') {
+                endLine();
+                return;
+            }
+            if (pendingCarriageReturn) {
+                // A '\r' not followed by '\n' is ordinary content
+                lineLength++;
+                pendingCarriageReturn = false;
+            }
+            if (value == '\r') {
+                pendingCarriageReturn = true;
+                inWord = false;
+                return;
+            }
+
+            lineLength++;
+            boolean whitespace = value == ' ' || value == '\t' || value == '\f' || value == 0x0B;
+            if (!whitespace) {
+                lineHasContent = true;
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+            } else {
+                inWord = false;
+            }
+        }
+
+        LineStatistics finish() {
+            if (pendingCarriageReturn) {
+                lineLength++;
+                pendingCarriageReturn = false;
+            }
+            // Last line of the file without a trailing '\n'
+            if (lineLength > 0) {
+                endLine();
+            }
+            if (lines == 0) {
+                return new LineStatistics(0, 0, 0, bytes, 0, 0, 0);
+            }
+            return new LineStatistics(lines, blankLines, words, bytes, minLineLength, maxLineLength, totalLineLength);
+        }
+
+        private void endLine() {
+            lines++;
+            if (!lineHasContent) {
+                blankLines++;
+            }
+            minLineLength = Math.min(minLineLength, lineLength);
+            maxLineLength = Math.max(maxLineLength, lineLength);
+            totalLineLength += lineLength;
+
+            lineLength = 0;
+            lineHasContent = false;
+            inWord = false;
+            pendingCarriageReturn = false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stores files in the block-compressed format (independent Deflate blocks plus a block index),
+ * trading some CPU for less disk space and I/O. Files stay randomly readable through BlockCompressedFile.
+ * Files in another format (written before the engine was switched, or by the async path) are read as plain text.
+ */
+public class CompressedFileIoEngine implements FileIoEngine {
+
+    private final int blockSize;
+
+    private final int level;
+
+    public CompressedFileIoEngine(int blockSize, int level) {
+        this.blockSize = blockSize;
+        this.level = level;
+    }
+
+    @Override
+    public long write(Path path, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = newOutputStream(path)) {
+            out.write(bytes);
+        }
+        return bytes.length;
+    }
+
+    @Override
+    public String read(Path path) throws IOException {
+        if (!BlockCompressedFile.isBlockCompressed(path)) {
+            return Files.readString(path, StandardCharsets.UTF_8);
+        }
+        try (BlockCompressedFile file = BlockCompressedFile.open(path)) {
+            return new String(file.readAll(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public OutputStream newOutputStream(Path path) throws IOException {
+        OutputStream out = Files.newOutputStream(path);
+        try {
+            return new BlockCompressedOutputStream(out, blockSize, level);
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getEngine() {
+        return "compressed";
+    }
+}
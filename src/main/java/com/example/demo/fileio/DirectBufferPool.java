@@ -0,0 +1,32 @@
+package com.example.demo.fileio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of equally sized direct buffers. Direct buffers are expensive to allocate and are
+ * only reclaimed by GC, so they are reused; when the pool is empty a fresh buffer is handed out
+ * and kept on release only if there is room.
+ */
+class DirectBufferPool {
+
+    private final int bufferSize;
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    DirectBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Storage engine used by FileIOService to read and write whole text files (UTF-8)
+ */
+public interface FileIoEngine {
+
+    /**
+     * Creates or replaces the file with the given content, returns the number of bytes written
+     */
+    long write(Path path, String content) throws IOException;
+
+    /**
+     * Reads the whole file
+     */
+    String read(Path path) throws IOException;
+
+    /**
+     * Stream for writing a file in this engine's on-disk format, for content too large to hold as a String
+     */
+    default OutputStream newOutputStream(Path path) throws IOException {
+        return Files.newOutputStream(path);
+    }
+
+    /**
+     * Engine name reported in responses and benchmarks
+     */
+    String getEngine();
+}
@@ -0,0 +1,31 @@
+package com.example.demo.fileio;
+
+/**
+ * Aggregates over the lines of a text file. Lengths are in bytes, excluding the line terminator.
+ */
+public record LineStatistics(long lines, long blankLines, long words, long bytes,
+                             long minLineLength, long maxLineLength, long totalLineLength) {
+
+    public static final LineStatistics EMPTY = new LineStatistics(0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * Combines the statistics of two disjoint parts of a file
+     */
+    public LineStatistics merge(LineStatistics other) {
+        if (other.lines == 0) {
+            return new LineStatistics(lines, blankLines, words, bytes + other.bytes,
+                    minLineLength, maxLineLength, totalLineLength);
+        }
+        if (lines == 0) {
+            return new LineStatistics(other.lines, other.blankLines, other.words, bytes + other.bytes,
+                    other.minLineLength, other.maxLineLength, other.totalLineLength);
+        }
+        return new LineStatistics(lines + other.lines, blankLines + other.blankLines, words + other.words,
+                bytes + other.bytes, Math.min(minLineLength, other.minLineLength),
+                Math.max(maxLineLength, other.maxLineLength), totalLineLength + other.totalLineLength);
+    }
+
+    public double averageLineLength() {
+        return lines == 0 ? 0.0 : (double) totalLineLength / lines;
+    }
+}
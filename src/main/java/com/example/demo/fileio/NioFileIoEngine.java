@@ -0,0 +1,128 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FileChannel engine. Writes encode the content chunk by chunk and write it from pooled direct
+ * buffers, so no heap copy of the whole payload is made. Reads of files at or above the mmap threshold go through
+ * a MappedByteBuffer, smaller ones through a pooled direct buffer.
+ */
+public class NioFileIoEngine implements FileIoEngine {
+
+    private final DirectBufferPool bufferPool;
+
+    private final long mmapThresholdBytes;
+
+    public NioFileIoEngine(int bufferSize, int bufferPoolSize, long mmapThresholdBytes) {
+        this.bufferPool = new DirectBufferPool(bufferSize, bufferPoolSize);
+        this.mmapThresholdBytes = mmapThresholdBytes;
+    }
+
+    @Override
+    public long write(Path path, String content) throws IOException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer buffer = bufferPool.acquire();
+
+        // Chars are encoded through small heap scratch arrays, which takes the encoder's array fast path
+        int chunkChars = Math.min(content.length(), buffer.capacity() / 3);
+        char[] chars = new char[Math.max(chunkChars, 1)];
+        ByteBuffer encoded = ByteBuffer.wrap(new byte[chars.length * 3]);
+        CharBuffer pending = CharBuffer.wrap(chars, 0, 0);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long written = 0;
+            int position = 0;
+            while (position < content.length() || pending.hasRemaining()) {
+                // Refill the scratch chars; a split surrogate pair stays pending until the next chunk
+                pending.compact();
+                int count = Math.min(pending.remaining(), content.length() - position);
+                content.getChars(position, position + count, chars, pending.position());
+                pending.position(pending.position() + count).flip();
+                position += count;
+
+                encoder.encode(pending, encoded, position == content.length());
+                written += drain(channel, encoded, buffer);
+            }
+            encoder.flush(encoded);
+            written += drain(channel, encoded, buffer);
+            return written;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    public String read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("File too large to read into a String: " + path + " (" + size + " bytes)");
+            }
+
+            byte[] bytes = new byte[(int) size];
+            int length;
+            if (size >= mmapThresholdBytes) {
+                // Copied straight out of the page cache, no read() syscalls or bounce buffer
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                mapped.get(bytes);
+                length = bytes.length;
+            } else {
+                length = readFully(channel, bytes);
+            }
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public String getEngine() {
+        return "nio";
+    }
+
+    private int readFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            int offset = 0;
+            while (offset < bytes.length) {
+                buffer.clear().limit(Math.min(buffer.capacity(), bytes.length - offset));
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    // File shrank after its size was taken
+                    break;
+                }
+                buffer.flip().get(bytes, offset, read);
+                offset += read;
+            }
+            return offset;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Moves the encoded bytes into the direct buffer and writes them out
+     */
+    private long drain(FileChannel channel, ByteBuffer encoded, ByteBuffer buffer) throws IOException {
+        encoded.flip();
+        buffer.clear();
+        buffer.put(encoded).flip();
+        encoded.clear();
+
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.fileio;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * java.nio.file.Files convenience methods: the payload is encoded to a heap byte[] on write
+ * and read back through a heap byte[] on read
+ */
+public class StandardFileIoEngine implements FileIoEngine {
+
+    @Override
+    public long write(Path path, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Files.write(path, bytes);
+        return bytes.length;
+    }
+
+    @Override
+    public String read(Path path) throws IOException {
+        return Files.readString(path);
+    }
+
+    @Override
+    public String getEngine() {
+        return "standard";
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.demo.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-key limiter state with a hard cap on the number of keys and idle expiry, so memory stays
+ * bounded no matter how many distinct keys callers send.
+ * <p>
+ * Lookups of existing keys are a map read plus one volatile write of the access time. Expiry uses
+ * a single-level timer wheel whose buckets each cover idleTimeout / (buckets - 2): every key sits
+ * in the bucket of the tick at which it would have been idle long enough. Keys are not moved on
+ * access; when their bucket comes due, keys that were used in the meantime are moved to the bucket
+ * of their new expiry and the rest are dropped, so an expiry pass costs O(due keys), not O(keys).
+ * <p>
+ * Creating a key beyond maxKeys first expires what is due, then evicts the keys closest to expiry
+ * (roughly the least recently used). An evicted key starts again from fresh limiter state.
+ */
+public class KeyedLimiterRegistry<K, V> {
+
+    private static final int WHEEL_BUCKETS = 64;
+
+    private final int maxKeys;
+
+    private final long idleNanos;
+
+    private final long tickNanos;
+
+    /**
+     * Minimum idle time before a value may be dropped without changing what its limiter would
+     * allow (e.g. a window still holding counts); expiry waits for the larger of this and idleNanos
+     */
+    private final ToLongFunction<V> minIdleNanos;
+
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    private final ArrayDeque<Entry<K, V>>[] wheel;
+
+    private final long origin = System.nanoTime();
+
+    /**
+     * Last tick whose bucket has been processed; guarded by this
+     */
+    private long currentTick;
+
+    private final LongAdder expired = new LongAdder();
+
+    private final LongAdder evicted = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public KeyedLimiterRegistry(int maxKeys, Duration idleTimeout, ToLongFunction<V> minIdleNanos) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.maxKeys = maxKeys;
+        this.idleNanos = idleTimeout.toNanos();
+        this.tickNanos = Math.max(1, (idleNanos + WHEEL_BUCKETS - 3) / (WHEEL_BUCKETS - 2));
+        this.minIdleNanos = minIdleNanos;
+        this.wheel = new ArrayDeque[WHEEL_BUCKETS];
+        for (int i = 0; i < WHEEL_BUCKETS; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+    }
+
+    public KeyedLimiterRegistry(int maxKeys, Duration idleTimeout) {
+        this(maxKeys, idleTimeout, value -> 0);
+    }
+
+    /**
+     * The value for key, created with factory if absent; marks the key as used
+     */
+    public V get(K key, Function<? super K, ? extends V> factory) {
+        long now = System.nanoTime();
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = now;
+            return entry.value;
+        }
+        return insert(key, factory, now);
+    }
+
+    private synchronized V insert(K key, Function<? super K, ? extends V> factory, long now) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = now;
+            return entry.value;
+        }
+
+        advance(now);
+        if (entries.size() >= maxKeys) {
+            evict(entries.size() - maxKeys + 1);
+        }
+
+        entry = new Entry<>(key, factory.apply(key), now);
+        entries.put(key, entry);
+        schedule(entry, now);
+        return entry.value;
+    }
+
+    /**
+     * Drops every key that has been idle past its expiry; returns how many were dropped
+     */
+    public synchronized int expireIdle() {
+        long before = expired.sum();
+        advance(System.nanoTime());
+        return (int) (expired.sum() - before);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        for (ArrayDeque<Entry<K, V>> bucket : wheel) {
+            bucket.clear();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        entries.forEach((key, entry) -> action.accept(key, entry.value));
+    }
+
+    /**
+     * Keys dropped after being idle
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * Keys dropped early to stay within maxKeys
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * Processes the buckets of every tick up to now. A bucket is only processed once per pass, so
+     * after a gap longer than the wheel at most one lap is walked.
+     */
+    private void advance(long now) {
+        long nowTick = tickOf(now);
+        long lastTick = Math.min(nowTick, currentTick + WHEEL_BUCKETS);
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            ArrayDeque<Entry<K, V>> due = swapBucket(tick);
+            for (Entry<K, V> entry : due) {
+                if (!isLive(entry)) {
+                    continue;
+                }
+                long expiresAt = expiresAt(entry);
+                if (expiresAt <= now) {
+                    entries.remove(entry.key, entry);
+                    expired.increment();
+                } else {
+                    schedule(entry, now);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+    }
+
+    /**
+     * Removes count keys, taking them in expiry order starting from the next tick. Keys used since
+     * they were scheduled are moved to their real bucket on the way, so recently used keys are kept.
+     * Each key looked at is either evicted or moved, so evicting one key is O(1) amortized.
+     */
+    private void evict(int count) {
+        long now = System.nanoTime();
+        int removed = 0;
+        // Keys in use keep moving while we look; give up on order after one look at every key
+        int budget = entries.size() * 2;
+        for (long tick = currentTick + 1; removed < count && tick <= currentTick + WHEEL_BUCKETS; tick++) {
+            ArrayDeque<Entry<K, V>> bucket = wheel[(int) Math.floorMod(tick, (long) WHEEL_BUCKETS)];
+            while (removed < count && !bucket.isEmpty() && budget-- > 0) {
+                Entry<K, V> entry = bucket.poll();
+                if (!isLive(entry)) {
+                    continue;
+                }
+                if (entry.lastAccess == entry.scheduledAccess) {
+                    entries.remove(entry.key, entry);
+                    evicted.increment();
+                    removed++;
+                } else {
+                    // Used since it was scheduled: move it behind the keys that were not
+                    schedule(entry, now);
+                }
+            }
+        }
+        if (removed < count) {
+            // Every key looked at was in use; drop any of them
+            for (Entry<K, V> entry : entries.values()) {
+                if (removed++ >= count) {
+                    break;
+                }
+                entries.remove(entry.key, entry);
+                evicted.increment();
+            }
+        }
+    }
+
+    /**
+     * Empties the bucket of tick and returns its former contents
+     */
+    private ArrayDeque<Entry<K, V>> swapBucket(long tick) {
+        int index = (int) Math.floorMod(tick, (long) WHEEL_BUCKETS);
+        ArrayDeque<Entry<K, V>> bucket = wheel[index];
+        wheel[index] = new ArrayDeque<>();
+        return bucket;
+    }
+
+    /**
+     * Puts the entry in the bucket of its expiry tick, capped one wheel span ahead of now; a later
+     * expiry is reached by being moved again when that bucket comes due
+     */
+    private void schedule(Entry<K, V> entry, long now) {
+        entry.scheduledAccess = entry.lastAccess;
+        long tick = Math.max(currentTick + 1, tickOf(Math.min(expiresAt(entry), now + idleNanos)) + 1);
+        wheel[(int) Math.floorMod(tick, (long) WHEEL_BUCKETS)].add(entry);
+    }
+
+    private long expiresAt(Entry<K, V> entry) {
+        return entry.lastAccess + Math.max(idleNanos, minIdleNanos.applyAsLong(entry.value));
+    }
+
+    /**
+     * False for entries already removed or replaced by a newer entry for the same key
+     */
+    private boolean isLive(Entry<K, V> entry) {
+        return entries.get(entry.key) == entry;
+    }
+
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos - origin, tickNanos);
+    }
+
+    private static final class Entry<K, V> {
+
+        final K key;
+
+        final V value;
+
+        volatile long lastAccess;
+
+        /**
+         * lastAccess when the entry was put in its bucket; guarded by the registry
+         */
+        long scheduledAccess;
+
+        Entry(K key, V value, long lastAccess) {
+            this.key = key;
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.ratelimit;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Sliding-window request counter for one key. The window is split into a fixed number of
+ * sub-windows kept in primitive ring buffers, so memory per key is constant no matter how many
+ * requests arrive; a request is allowed while fewer than maxRequests were allowed in the most
+ * recent subWindows sub-windows, i.e. the window slides in steps of window / subWindows.
+ * Checks hold the counter's monitor only for a few array updates.
+ */
+public class SlidingWindowCounter {
+
+    private final int maxRequests;
+
+    private final long subWindowNanos;
+
+    private final int subWindows;
+
+    /**
+     * Sub-window number (nanoTime / subWindowNanos) each slot currently counts for
+     */
+    private final long[] slotEpochs;
+
+    private final int[] slotCounts;
+
+    private int total;
+
+    private long lastEpoch;
+
+    public SlidingWindowCounter(int maxRequests, Duration window, int subWindows) {
+        if (maxRequests <= 0 || subWindows <= 0) {
+            throw new IllegalArgumentException("maxRequests and subWindows must be positive");
+        }
+        this.maxRequests = maxRequests;
+        this.subWindows = subWindows;
+        this.subWindowNanos = Math.max(1, window.toNanos() / subWindows);
+        this.slotEpochs = new long[subWindows];
+        this.slotCounts = new int[subWindows];
+        this.lastEpoch = Math.floorDiv(System.nanoTime(), subWindowNanos);
+    }
+
+    /**
+     * Counts the request and returns true if it fits in the window, otherwise returns false without counting it
+     */
+    public boolean tryAcquire() {
+        long epoch = Math.floorDiv(System.nanoTime(), subWindowNanos);
+
+        synchronized (this) {
+            expire(epoch);
+            if (total >= maxRequests) {
+                return false;
+            }
+            int slot = (int) Math.floorMod(epoch, (long) subWindows);
+            slotEpochs[slot] = epoch;
+            slotCounts[slot]++;
+            total++;
+            return true;
+        }
+    }
+
+    /**
+     * Requests counted in the current window
+     */
+    public synchronized int currentCount() {
+        expire(Math.floorDiv(System.nanoTime(), subWindowNanos));
+        return total;
+    }
+
+    /**
+     * Time until the oldest counted sub-window leaves the window and frees capacity; zero if there is capacity now
+     */
+    public synchronized Duration timeUntilAllowed() {
+        long now = System.nanoTime();
+        long epoch = Math.floorDiv(now, subWindowNanos);
+        expire(epoch);
+        if (total < maxRequests) {
+            return Duration.ZERO;
+        }
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < subWindows; i++) {
+            if (slotCounts[i] > 0) {
+                oldest = Math.min(oldest, slotEpochs[i]);
+            }
+        }
+        long freedAt = (oldest + subWindows) * subWindowNanos;
+        return Duration.ofNanos(Math.max(0, freedAt - now));
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public long getWindowNanos() {
+        return subWindowNanos * subWindows;
+    }
+
+    /**
+     * Drops sub-windows that have slid out of the window ending at epoch
+     */
+    private void expire(long epoch) {
+        if (epoch <= lastEpoch) {
+            return;
+        }
+        if (epoch - lastEpoch >= subWindows) {
+            Arrays.fill(slotCounts, 0);
+            total = 0;
+        } else {
+            for (long expired = lastEpoch + 1; expired <= epoch; expired++) {
+                int slot = (int) Math.floorMod(expired, (long) subWindows);
+                total -= slotCounts[slot];
+                slotCounts[slot] = 0;
+            }
+        }
+        lastEpoch = epoch;
+    }
+}
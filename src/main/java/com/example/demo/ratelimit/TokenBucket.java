@@ -0,0 +1,120 @@
+package com.example.demo.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The whole state is one AtomicLong: the nanoTime at which the bucket will
+ * be full again (the GCRA "theoretical arrival time"). Refill is lazy, computed from System.nanoTime
+ * on each call, so there is no refill thread and no timer per bucket; acquiring is a single CAS.
+ */
+public class TokenBucket {
+
+    private final int capacity;
+
+    private final long nanosPerToken;
+
+    private final long burstNanos;
+
+    private final Duration refillPeriod;
+
+    private final AtomicLong fullAt;
+
+    /**
+     * A bucket holding up to capacity tokens that refills from empty to full over refillPeriod
+     */
+    public TokenBucket(int capacity, Duration refillPeriod) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPeriod = refillPeriod;
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = nanosPerToken * capacity;
+        // Starts full
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes n tokens if they are all available right now; never blocks
+     */
+    public boolean tryAcquire(int n) {
+        checkPermits(n);
+        long cost = n * nanosPerToken;
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Reserves n tokens and completes with true once they have refilled, or completes with false
+     * right away if that would take longer than maxWait. A reservation is not returned if the caller
+     * stops waiting for it.
+     */
+    public CompletableFuture<Boolean> acquireAsync(int n, Duration maxWait) {
+        checkPermits(n);
+        long cost = n * nanosPerToken;
+        long maxWaitNanos = maxWait.toNanos();
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long wait = next - now - burstNanos;
+            if (wait > maxWaitNanos) {
+                return CompletableFuture.completedFuture(false);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                if (wait <= 0) {
+                    return CompletableFuture.completedFuture(true);
+                }
+                return CompletableFuture.supplyAsync(() -> true,
+                        CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS));
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Tokens that could be taken right now; 0 while reservations are still waiting for theirs
+     */
+    public int availableTokens() {
+        long now = System.nanoTime();
+        long debt = Math.max(fullAt.get(), now) - now;
+        return (int) Math.max(0, (burstNanos - debt) / nanosPerToken);
+    }
+
+    /**
+     * How long until n tokens are available, zero if they are available now
+     */
+    public Duration timeUntilAvailable(int n) {
+        checkPermits(n);
+        long now = System.nanoTime();
+        long wait = Math.max(fullAt.get(), now) + n * nanosPerToken - now - burstNanos;
+        return Duration.ofNanos(Math.max(0, wait));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Duration getRefillPeriod() {
+        return refillPeriod;
+    }
+
+    private void checkPermits(int n) {
+        if (n <= 0 || n > capacity) {
+            throw new IllegalArgumentException("permits must be between 1 and the capacity " + capacity);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.TestEntityView;
 import com.example.demo.entity.TestEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TestRepository extends JpaRepository<TestEntity, Long> {
@@ -16,8 +25,50 @@ public interface TestRepository extends JpaRepository<TestEntity, Long> {
     @Query("SELECT t FROM TestEntity t WHERE t.value LIKE %:value%")
     List<TestEntity> findByValueContaining(@Param("value") String value);
     
-    @Query(value = "SELECT * FROM test_data ORDER BY created_at DESC LIMIT :limit", nativeQuery = true)
-    List<TestEntity> findRecentEntries(@Param("limit") int limit);
+    // Word search through the H2 full-text index (see schema.sql) instead of a LIKE table scan
+    @Query(value = "SELECT t.* FROM FT_SEARCH_DATA(:text, :limit, 0) ft "
+            + "JOIN test_data t ON t.id = CAST(ft.KEYS[1] AS BIGINT) WHERE ft.\"TABLE\" = 'TEST_DATA'",
+            nativeQuery = true)
+    List<TestEntity> searchByValue(@Param("text") String text, @Param("limit") int limit);
+    
+    // Read-only projections: rows are mapped straight into TestEntityView, bypassing the persistence context.
+    // Cacheable results are invalidated by Hibernate whenever test_data is written through the session.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.example.demo.dto.TestEntityView(t.id, t.name, t.value, t.createdAt, t.threadName, t.version) "
+            + "FROM TestEntity t WHERE t.name = :name")
+    List<TestEntityView> findViewsByName(@Param("name") String name);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.example.demo.dto.TestEntityView(t.id, t.name, t.value, t.createdAt, t.threadName, t.version) "
+            + "FROM TestEntity t ORDER BY t.createdAt DESC, t.id DESC")
+    List<TestEntityView> findRecentViews(Limit limit);
+    
+    @Query("SELECT new com.example.demo.dto.TestEntityView(t.id, t.name, t.value, t.createdAt, t.threadName, t.version) "
+            + "FROM TestEntity t")
+    List<TestEntityView> findAllViews();
     
     long countByThreadName(String threadName);
+    
+    // Highest N among rows named exactly {prefix}N, so generated names can carry on from there
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(name, CHAR_LENGTH(:prefix) + 1) AS BIGINT)), 0) FROM test_data "
+            + "WHERE LEFT(name, CHAR_LENGTH(:prefix)) = :prefix "
+            + "AND REGEXP_LIKE(SUBSTRING(name, CHAR_LENGTH(:prefix) + 1), '^[0-9]{1,18}$')",
+            nativeQuery = true)
+    long findMaxNameSuffix(@Param("prefix") String prefix);
+    
+    // Keyset pagination, newest first: seeks past the (createdAt, id) of the last row seen instead of using OFFSET
+    @Query("SELECT new com.example.demo.dto.TestEntityView(t.id, t.name, t.value, t.createdAt, t.threadName, t.version) "
+            + "FROM TestEntity t ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TestEntityView> findFirstPage(Pageable pageable);
+    
+    @Query("SELECT new com.example.demo.dto.TestEntityView(t.id, t.name, t.value, t.createdAt, t.threadName, t.version) "
+            + "FROM TestEntity t WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TestEntityView> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Cursor-backed stream for exports; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.demo.dto.TestEntityView(t.id, t.name, t.value, t.createdAt, t.threadName, t.version) "
+            + "FROM TestEntity t ORDER BY t.createdAt, t.id")
+    Stream<TestEntityView> streamAllOrdered();
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.example.demo.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that finds its own value from observed round-trip times (gradient rule) and
+ * backs off multiplicatively on failures (AIMD decrease).
+ * <p>
+ * RTTs are averaged over windows of sampleWindow requests (the short RTT) and folded into an
+ * exponential average over about longWindow requests (the long RTT, the no-queueing baseline).
+ * After each window: gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1), and the limit moves
+ * towards limit * gradient + sqrt(limit). While latency holds the gradient is 1 and the limit
+ * grows by the sqrt(limit) queue allowance; once requests start queueing the short RTT rises and
+ * the limit shrinks in proportion. A dropped request cuts the limit by backoffRatio right away.
+ * <p>
+ * Admission is one CAS on the in-flight counter; only completions take the monitor, briefly.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /**
+     * How a finished request is counted. IGNORED requests free their slot but give no RTT signal
+     * (e.g. fast client errors that would make the system look quicker than it is).
+     */
+    public enum Outcome { SUCCESS, DROPPED, IGNORED }
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double rttTolerance;
+
+    private final int sampleWindow;
+
+    private final int longWindow;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private double longRttNanos;
+
+    private volatile double shortRttNanos;
+
+    private long windowRttSum;
+
+    private int windowSamples;
+
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                    double rttTolerance, int sampleWindow, int longWindow, double backoffRatio) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 0 < minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.sampleWindow = Math.max(1, sampleWindow);
+        this.longWindow = Math.max(1, longWindow);
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Takes an in-flight slot if fewer than limit requests are running; never blocks. Returns the
+     * number of requests in flight including this one, or 0 if the request is rejected. Every
+     * admitted request must be matched by one release, passing back that number.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot and feeds the request's round-trip time into the limit
+     */
+    public void release(int inFlightAtStart, long rttNanos, Outcome outcome) {
+        inFlight.decrementAndGet();
+        if (outcome == Outcome.IGNORED) {
+            return;
+        }
+        if (outcome == Outcome.DROPPED) {
+            dropped.increment();
+        }
+        update(rttNanos, inFlightAtStart, outcome == Outcome.DROPPED);
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart, boolean wasDropped) {
+        if (wasDropped) {
+            setLimit(estimatedLimit * backoffRatio);
+            return;
+        }
+
+        windowRttSum += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (++windowSamples < sampleWindow) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        shortRttNanos = shortRtt;
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) * 2.0 / (longWindow + 1);
+        }
+        // After a lasting latency drop the baseline would otherwise stay high and hide new queueing
+        if (longRttNanos > shortRtt * 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Too little load to tell whether the limit is too high or too low
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        setLimit(estimatedLimit * (1 - smoothing) + target * smoothing);
+    }
+
+    private void setLimit(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Average RTT of the last completed sample window, in milliseconds
+     */
+    public double getShortRttMs() {
+        return shortRttNanos / 1_000_000;
+    }
+
+    /**
+     * Long-term RTT baseline, in milliseconds
+     */
+    public synchronized double getLongRttMs() {
+        return longRttNanos / 1_000_000;
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.resilience;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of making a call while its circuit breaker is open or its half-open trials are taken
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String circuitName;
+
+    private final Duration retryAfter;
+
+    public CallNotPermittedException(String circuitName, Duration retryAfter) {
+        // No stack trace: rejections are the fast path while a dependency is down
+        super("Circuit '" + circuitName + "' is open", null, false, false);
+        this.circuitName = circuitName;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getCircuitName() {
+        return circuitName;
+    }
+
+    /**
+     * Time until the breaker lets trial calls through again
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
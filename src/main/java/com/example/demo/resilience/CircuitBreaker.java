@@ -0,0 +1,348 @@
+package com.example.demo.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for one dependency, driven by the outcomes of its most recent calls.
+ * <p>
+ * CLOSED: calls pass and their outcomes go into a count-based rolling window; once it holds at
+ * least minimumCalls outcomes and the failure rate or the slow-call rate reaches its threshold,
+ * the breaker opens. OPEN: calls are rejected immediately with CallNotPermittedException until
+ * openWait has passed. HALF_OPEN: only halfOpenCalls trial calls are let through; when they have
+ * all finished the breaker closes with a fresh window, or opens again if they are still failing.
+ * If the trials have not all finished after maxHalfOpenWait (e.g. a trial future never completes),
+ * the next call opens the breaker again instead of it staying half-open forever.
+ * <p>
+ * Lock-free: the state is one AtomicReference and transitions are CASes on it, so outcomes of
+ * calls started in an earlier state can never move the breaker. The window is a ring of outcome
+ * codes written with getAndSet, with running totals adjusted by the difference.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Failure and slow-call rates are fractions of the calls in the window (0.5 = 50%)
+     */
+    public record Config(double failureRateThreshold, double slowCallRateThreshold, Duration slowCallDuration,
+                         int windowSize, int minimumCalls, Duration openWait, int halfOpenCalls,
+                         Duration maxHalfOpenWait) {
+
+        public Config {
+            if (windowSize <= 0 || halfOpenCalls <= 0) {
+                throw new IllegalArgumentException("windowSize and halfOpenCalls must be positive");
+            }
+            minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+        }
+
+        public Config withOpenWait(Duration openWait) {
+            return new Config(failureRateThreshold, slowCallRateThreshold, slowCallDuration,
+                    windowSize, minimumCalls, openWait, halfOpenCalls, maxHalfOpenWait);
+        }
+    }
+
+    private static final int RECORDED = 1;
+
+    private static final int FAILED = 2;
+
+    private static final int SLOW = 4;
+
+    private final String name;
+
+    private final Config config;
+
+    private final long slowCallNanos;
+
+    private final long openWaitNanos;
+
+    private final long maxHalfOpenWaitNanos;
+
+    private final BiConsumer<State, State> onTransition;
+
+    private final AtomicReference<Phase> phase;
+
+    private final LongAdder successfulCalls = new LongAdder();
+
+    private final LongAdder failedCalls = new LongAdder();
+
+    private final LongAdder slowCalls = new LongAdder();
+
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    /**
+     * onTransition is called with (from, to) by the thread that made the transition
+     */
+    public CircuitBreaker(String name, Config config, BiConsumer<State, State> onTransition) {
+        this.name = name;
+        this.config = config;
+        this.slowCallNanos = config.slowCallDuration().toNanos();
+        this.openWaitNanos = config.openWait().toNanos();
+        this.maxHalfOpenWaitNanos = config.maxHalfOpenWait().toNanos();
+        this.onTransition = onTransition;
+        this.phase = new AtomicReference<>(Phase.closed(config.windowSize()));
+    }
+
+    /**
+     * Runs the call if the breaker permits it and records its outcome; any exception it throws counts as a failure
+     */
+    public <T> T execute(Supplier<T> call) {
+        Phase permit = acquirePermission();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(permit, System.nanoTime() - start, false);
+            return result;
+        } catch (RuntimeException | Error e) {
+            record(permit, System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Async variant: the outcome is recorded when the returned future completes. A rejected call
+     * returns a future failed with CallNotPermittedException without invoking the supplier.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        Phase permit;
+        try {
+            permit = acquirePermission();
+        } catch (CallNotPermittedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException | Error e) {
+            record(permit, System.nanoTime() - start, true);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> record(permit, System.nanoTime() - start, error != null));
+    }
+
+    /**
+     * Returns the phase the call is permitted in, or throws if the breaker rejects it
+     */
+    private Phase acquirePermission() {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN: {
+                    long waited = System.nanoTime() - current.enteredAt;
+                    if (waited < openWaitNanos) {
+                        rejectedCalls.increment();
+                        throw new CallNotPermittedException(name, Duration.ofNanos(openWaitNanos - waited));
+                    }
+                    transition(current, Phase.halfOpen(config.halfOpenCalls()));
+                    continue;
+                }
+                default: {
+                    if (current.trialPermits.getAndUpdate(permits -> Math.max(0, permits - 1)) > 0) {
+                        return current;
+                    }
+                    if (System.nanoTime() - current.enteredAt >= maxHalfOpenWaitNanos) {
+                        // Some trial never reported back; start over instead of waiting on it forever
+                        transition(current, Phase.open());
+                        continue;
+                    }
+                    rejectedCalls.increment();
+                    // Trials are still running; they decide within about one call duration
+                    throw new CallNotPermittedException(name, Duration.ZERO);
+                }
+            }
+        }
+    }
+
+    private void record(Phase permit, long durationNanos, boolean failed) {
+        boolean slow = durationNanos >= slowCallNanos;
+        (failed ? failedCalls : successfulCalls).increment();
+        if (slow) {
+            slowCalls.increment();
+        }
+
+        Window window = permit.window;
+        window.add(RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0));
+
+        int calls = window.calls();
+        if (permit.state == State.CLOSED) {
+            if (calls >= config.minimumCalls() && exceedsThresholds(window, calls)) {
+                transition(permit, Phase.open());
+            }
+        } else if (calls >= config.halfOpenCalls()) {
+            transition(permit, exceedsThresholds(window, calls) ? Phase.open() : Phase.closed(config.windowSize()));
+        }
+    }
+
+    private boolean exceedsThresholds(Window window, int calls) {
+        return window.failures() >= config.failureRateThreshold() * calls
+                || window.slow() >= config.slowCallRateThreshold() * calls;
+    }
+
+    /**
+     * Moves from the given phase to the next one; a no-op if another thread already moved on
+     */
+    private void transition(Phase from, Phase to) {
+        if (phase.compareAndSet(from, to) && onTransition != null) {
+            onTransition.accept(from.state, to.state);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Share of failed calls in the current window (closed or half-open), NaN while it is empty
+     */
+    public double getFailureRate() {
+        Window window = phase.get().window;
+        return window == null || window.calls() == 0 ? Double.NaN : (double) window.failures() / window.calls();
+    }
+
+    /**
+     * Share of slow calls in the current window (closed or half-open), NaN while it is empty
+     */
+    public double getSlowCallRate() {
+        Window window = phase.get().window;
+        return window == null || window.calls() == 0 ? Double.NaN : (double) window.slow() / window.calls();
+    }
+
+    /**
+     * Calls in the current window
+     */
+    public int getBufferedCalls() {
+        Window window = phase.get().window;
+        return window == null ? 0 : window.calls();
+    }
+
+    /**
+     * Time until an open breaker lets trial calls through; zero in the other states
+     */
+    public Duration getRemainingOpenTime() {
+        Phase current = phase.get();
+        if (current.state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openWaitNanos - (System.nanoTime() - current.enteredAt)));
+    }
+
+    public long getSuccessfulCalls() {
+        return successfulCalls.sum();
+    }
+
+    public long getFailedCalls() {
+        return failedCalls.sum();
+    }
+
+    public long getSlowCalls() {
+        return slowCalls.sum();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    /**
+     * One stay in a state. A new instance is made on every transition, so reference equality tells
+     * whether the state changed since a call was permitted.
+     */
+    private static final class Phase {
+
+        final State state;
+
+        /**
+         * When the state was entered; only set for OPEN and HALF_OPEN
+         */
+        final long enteredAt;
+
+        final Window window;
+
+        final AtomicInteger trialPermits;
+
+        private Phase(State state, long enteredAt, Window window, AtomicInteger trialPermits) {
+            this.state = state;
+            this.enteredAt = enteredAt;
+            this.window = window;
+            this.trialPermits = trialPermits;
+        }
+
+        static Phase closed(int windowSize) {
+            return new Phase(State.CLOSED, 0, new Window(windowSize), null);
+        }
+
+        static Phase open() {
+            return new Phase(State.OPEN, System.nanoTime(), null, null);
+        }
+
+        static Phase halfOpen(int trialCalls) {
+            return new Phase(State.HALF_OPEN, System.nanoTime(), new Window(trialCalls), new AtomicInteger(trialCalls));
+        }
+    }
+
+    /**
+     * Ring of the last size outcome codes. Totals are updated after the slot is swapped, so under
+     * contention they can lag the ring by the calls being recorded at that instant.
+     */
+    private static final class Window {
+
+        private final AtomicIntegerArray outcomes;
+
+        private final AtomicLong cursor = new AtomicLong();
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final AtomicInteger slow = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void add(int outcome) {
+            int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+            int replaced = outcomes.getAndSet(slot, outcome);
+            if ((replaced & RECORDED) == 0) {
+                calls.incrementAndGet();
+            }
+            adjust(failures, replaced & FAILED, outcome & FAILED);
+            adjust(slow, replaced & SLOW, outcome & SLOW);
+        }
+
+        private static void adjust(AtomicInteger total, int before, int after) {
+            if (before != after) {
+                total.addAndGet(after != 0 ? 1 : -1);
+            }
+        }
+
+        int calls() {
+            return calls.get();
+        }
+
+        int failures() {
+            return Math.max(0, failures.get());
+        }
+
+        int slow() {
+            return Math.max(0, slow.get());
+        }
+    }
+}
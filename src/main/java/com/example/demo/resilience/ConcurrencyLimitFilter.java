@@ -0,0 +1,215 @@
+package com.example.demo.resilience;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.catalina.connector.ClientAbortException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.example.demo.resilience.AdaptiveConcurrencyLimit.Outcome;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits /api requests through the adaptive concurrency limit of their endpoint group (the path
+ * segment after /api/) and sheds the rest immediately with 503, before a thread blocks on a
+ * downstream call. Groups without a limit of their own share the default one; excluded groups
+ * (health checks, the local API stub) are never limited.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String DEFAULT_GROUP = "default";
+
+    private static final String API_PREFIX = "/api/";
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits;
+
+    private final Set<String> excludedGroups;
+
+    /**
+     * limits must contain an entry for DEFAULT_GROUP
+     */
+    public ConcurrencyLimitFilter(Map<String, AdaptiveConcurrencyLimit> limits, Set<String> excludedGroups) {
+        if (!limits.containsKey(DEFAULT_GROUP)) {
+            throw new IllegalArgumentException("A limit for the default group is required");
+        }
+        this.limits = limits;
+        this.excludedGroups = excludedGroups;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String group = groupOf(request);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+        int inFlight = limit.tryAcquire();
+        if (inFlight == 0) {
+            shed(response, group, limit);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } catch (Throwable e) {
+            limit.release(inFlight, System.nanoTime() - start,
+                    isDownstreamFailure(e) ? Outcome.DROPPED : Outcome.IGNORED);
+            throw e;
+        }
+
+        if (request.isAsyncStarted()) {
+            // Streaming responses keep their slot until the async request completes
+            request.getAsyncContext().addListener(new ReleaseOnCompletion(limit, inFlight, start));
+        } else {
+            limit.release(inFlight, System.nanoTime() - start, outcomeOf(request, response.getStatus()));
+        }
+    }
+
+    /**
+     * The limit group for the request, or null if it is not limited
+     */
+    private String groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(API_PREFIX)) {
+            return null;
+        }
+        int end = path.indexOf('/', API_PREFIX.length());
+        String segment = end < 0 ? path.substring(API_PREFIX.length()) : path.substring(API_PREFIX.length(), end);
+        if (excludedGroups.contains(segment)) {
+            return null;
+        }
+        return limits.containsKey(segment) ? segment : DEFAULT_GROUP;
+    }
+
+    private void shed(HttpServletResponse response, String group, AdaptiveConcurrencyLimit limit) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":\"overloaded\",\"group\":\"" + group
+                + "\",\"limit\":" + limit.getLimit() + "}");
+    }
+
+    /**
+     * Only gateway errors and requests failed by a downstream timeout or outage mean the group is
+     * struggling. 503s are fast rejections (circuit breakers, shedding), and client errors and other
+     * server errors (bad input, bugs) say nothing about capacity, so none of them feed the RTT estimate.
+     */
+    private static Outcome outcomeOf(ServletRequest request, int status) {
+        if (status < 400) {
+            return Outcome.SUCCESS;
+        }
+        if (status == HttpStatus.BAD_GATEWAY.value() || status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            return Outcome.DROPPED;
+        }
+        if (status >= 500 && status != HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            // Set when an exception handler produced the response, or by the container's error dispatch
+            Object failure = request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+            if (failure == null) {
+                failure = request.getAttribute(RequestDispatcher.ERROR_EXCEPTION);
+            }
+            if (failure instanceof Throwable e && isDownstreamFailure(e)) {
+                return Outcome.DROPPED;
+            }
+        }
+        return Outcome.IGNORED;
+    }
+
+    /**
+     * A timeout, refused connection or unreachable/overloaded database anywhere in the cause chain.
+     * Other I/O errors (a client hanging up, local file errors) say nothing about downstream capacity.
+     */
+    private static boolean isDownstreamFailure(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof ClientAbortException) {
+                return false;
+            }
+            if (e instanceof TimeoutException || e instanceof HttpTimeoutException
+                    || e instanceof SocketTimeoutException || e instanceof ConnectException
+                    || e instanceof SQLTransientException || e instanceof SQLRecoverableException
+                    || e instanceof SQLNonTransientConnectionException
+                    || e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                    || e instanceof DataAccessResourceFailureException
+                    || e instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+
+        private final int inFlight;
+
+        private final long start;
+
+        private boolean released;
+
+        ReleaseOnCompletion(AdaptiveConcurrencyLimit limit, int inFlight, long start) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            release(outcomeOf(event.getSuppliedRequest(), response.getStatus()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(Outcome.DROPPED);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(isDownstreamFailure(event.getThrowable()) ? Outcome.DROPPED : Outcome.IGNORED);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register so a nested async cycle still releases the slot
+            event.getAsyncContext().addListener(this);
+        }
+
+        /**
+         * Complete also fires after a timeout or error; the slot is released only once
+         */
+        private synchronized void release(Outcome outcome) {
+            if (!released) {
+                released = true;
+                limit.release(inFlight, System.nanoTime() - start, outcome);
+            }
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, segmented log with group commit. Callers enqueue records and get a future; a single
+ * writer thread takes everything queued, appends it with one gathering write and one force, then
+ * completes the futures. Segments roll once they reach the configured size.
+ * Each record is framed as [int length][int CRC32C of payload][payload].
+ */
+@Service
+public class AppendOnlyLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppendOnlyLogService.class);
+
+    private static final int HEADER_BYTES = 8;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    @Value("${app.file-log.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.file-log.directory:temp/log}")
+    private String directory;
+
+    @Value("${app.file-log.segment-size-bytes:67108864}")
+    private long segmentSizeBytes;
+
+    @Value("${app.file-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.file-log.max-batch-records:1000}")
+    private int maxBatchRecords;
+
+    @Value("${app.file-log.offer-timeout-ms:1000}")
+    private long offerTimeoutMs;
+
+    @Value("${app.file-log.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${app.file-operation-delay:1500}")
+    private long fileOperationDelay;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingRecord> queue;
+
+    private Thread writer;
+
+    private volatile boolean accepting;
+
+    private Path logDirectory;
+
+    private FileChannel segment;
+
+    private Path segmentPath;
+
+    private long segmentSequence;
+
+    private long segmentPosition;
+
+    private DistributionSummary groupSizes;
+
+    private Timer groupWrites;
+
+    private Counter segmentsRolled;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        logDirectory = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(logDirectory);
+        // Never append to an old segment, its tail may be torn; start after the highest existing one
+        segmentSequence = highestSegmentSequence();
+        openNextSegment();
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("file.log.queue.depth", queue, BlockingQueue::size)
+                .description("Records waiting for the log writer")
+                .register(meterRegistry);
+        groupSizes = DistributionSummary.builder("file.log.group.size")
+                .description("Records made durable per write + force")
+                .register(meterRegistry);
+        groupWrites = Timer.builder("file.log.group.duration")
+                .description("Time to write and force one group")
+                .register(meterRegistry);
+        segmentsRolled = Counter.builder("file.log.segments.rolled")
+                .description("Segments closed after reaching the size limit")
+                .register(meterRegistry);
+
+        accepting = true;
+        writer = new Thread(this::writeLoop, "file-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a record; the future completes with its location once it has been forced to disk
+     */
+    public CompletableFuture<LogPosition> append(byte[] payload) {
+        if (!accepting) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Append-only log is not accepting records"));
+        }
+        if (payload.length + HEADER_BYTES > segmentSizeBytes) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Record of " + payload.length + " bytes does not fit in a log segment"));
+        }
+
+        PendingRecord pending = new PendingRecord(payload, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new RuntimeException("Append-only log queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new RuntimeException("Log append interrupted", e));
+        }
+        // An append that was still blocked in offer when shutdown ran its last drain; taking it back
+        // out fails it here, and if it is already gone the writer or shutdown completes it
+        if (!accepting && queue.remove(pending)) {
+            pending.result().completeExceptionally(new IllegalStateException("Append-only log shut down"));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Appends and waits until the record is durable
+     */
+    public LogPosition appendAndWait(byte[] payload) {
+        try {
+            return append(payload).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Log append failed", e.getCause());
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> group = new ArrayList<>(maxBatchRecords);
+
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Everything that queued up while the previous force was running joins this group
+                group.add(first);
+                queue.drainTo(group, maxBatchRecords - 1);
+
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                // Shutdown waits for the loop to finish draining, so keep going
+                logger.warn("⚠️ [FILE-LOG] Writer interrupted, continuing to drain | Queued: {}", queue.size());
+            } finally {
+                group.clear();
+            }
+        }
+        closeSegment();
+    }
+
+    private void writeGroup(List<PendingRecord> group) throws InterruptedException {
+        long startTime = System.nanoTime();
+        try {
+            // One simulated slow device round trip for the whole group
+            Thread.sleep(fileOperationDelay);
+
+            int from = 0;
+            while (from < group.size()) {
+                from = writeToSegment(group, from);
+            }
+        } catch (IOException e) {
+            logger.error("💥 [FILE-LOG] Group of {} records failed | Segment: {} | Error: {}",
+                    group.size(), segmentPath, e.getMessage());
+            group.forEach(pending -> pending.result().completeExceptionally(
+                    new RuntimeException("Log write failed", e)));
+        } catch (InterruptedException e) {
+            group.forEach(pending -> pending.result().completeExceptionally(
+                    new RuntimeException("Log write interrupted", e)));
+            throw e;
+        } finally {
+            groupSizes.record(group.size());
+            groupWrites.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Appends as many records from the group as fit in the current segment with one write + force,
+     * rolling first if not even the next record fits. Returns the index of the first record not written.
+     */
+    private int writeToSegment(List<PendingRecord> group, int from) throws IOException {
+        if (segmentPosition > 0 && segmentPosition + frameSize(group.get(from)) > segmentSizeBytes) {
+            rollSegment();
+        }
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+        List<LogPosition> positions = new ArrayList<>();
+        long position = segmentPosition;
+        int to = from;
+        CRC32C crc = new CRC32C();
+        while (to < group.size() && position + frameSize(group.get(to)) <= segmentSizeBytes) {
+            byte[] payload = group.get(to).payload();
+            crc.reset();
+            crc.update(payload);
+            buffers.add(ByteBuffer.allocate(HEADER_BYTES).putInt(payload.length).putInt((int) crc.getValue()).flip());
+            buffers.add(ByteBuffer.wrap(payload));
+            positions.add(new LogPosition(segmentPath.getFileName().toString(), position, payload.length));
+            position += frameSize(group.get(to));
+            to++;
+        }
+
+        ByteBuffer[] frames = buffers.toArray(ByteBuffer[]::new);
+        try {
+            long remaining = position - segmentPosition;
+            while (remaining > 0) {
+                remaining -= segment.write(frames);
+            }
+            segment.force(false);
+        } catch (IOException e) {
+            discardPartialWrite();
+            throw e;
+        }
+        segmentPosition = position;
+
+        for (int i = from; i < to; i++) {
+            group.get(i).result().complete(positions.get(i - from));
+        }
+        return to;
+    }
+
+    /**
+     * Cuts the segment back to the end of the last complete group, so a failed write leaves no torn
+     * frame for the next group to append after. If that fails too, the log moves on to a new segment.
+     */
+    private void discardPartialWrite() {
+        try {
+            segment.truncate(segmentPosition);
+            segment.position(segmentPosition);
+        } catch (IOException e) {
+            logger.warn("⚠️ [FILE-LOG] Could not truncate segment {} to {} bytes, rolling | Error: {}",
+                    segmentPath.getFileName(), segmentPosition, e.getMessage());
+            try {
+                rollSegment();
+            } catch (IOException rollFailure) {
+                logger.error("💥 [FILE-LOG] Failed to open a new segment | Error: {}", rollFailure.getMessage());
+            }
+        }
+    }
+
+    private long frameSize(PendingRecord record) {
+        return HEADER_BYTES + record.payload().length;
+    }
+
+    private void rollSegment() throws IOException {
+        logger.info("💾 [FILE-LOG] Rolling segment {} at {} bytes", segmentPath.getFileName(), segmentPosition);
+        closeSegment();
+        openNextSegment();
+        segmentsRolled.increment();
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentSequence++;
+        segmentPath = logDirectory.resolve(String.format("%020d%s", segmentSequence, SEGMENT_SUFFIX));
+        segment = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentPosition = 0;
+    }
+
+    private void closeSegment() {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.error("💥 [FILE-LOG] Failed to close segment {} | Error: {}", segmentPath, e.getMessage());
+        }
+    }
+
+    private long highestSegmentSequence() throws IOException {
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> name.substring(0, name.length() - SEGMENT_SUFFIX.length()))
+                    .filter(name -> name.chars().allMatch(Character::isDigit) && !name.isEmpty())
+                    .mapToLong(Long::parseLong)
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+
+        accepting = false;
+        logger.info("💾 [FILE-LOG] Flushing {} queued records before shutdown", queue.size());
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writer.isAlive()) {
+            logger.error("🚫 [FILE-LOG] Writer did not finish within {}ms | Still queued: {}",
+                    shutdownTimeoutMs, queue.size());
+            return;
+        }
+
+        // Appends that raced with shutdown after the writer's last drain
+        PendingRecord pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("Append-only log shut down"));
+        }
+    }
+
+    /**
+     * Where a durable record lives: segment file name, byte offset of its frame and payload length
+     */
+    public record LogPosition(String segment, long offset, int length) {
+    }
+
+    private record PendingRecord(byte[] payload, CompletableFuture<LogPosition> result) {
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.example.demo.dto.TestEntityView;
 import com.example.demo.entity.TestEntity;
 import com.example.demo.repository.TestRepository;
 import org.slf4j.Logger;
@@ -14,17 +15,41 @@ import java.util.List;
 import java.util.ArrayList;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 @Service
 public class BlockingIoService {
     
     private static final Logger logger = LoggerFactory.getLogger(BlockingIoService.class);
+
+    /**
+     * Directory (relative to the working directory) that slowFileWrite writes into
+     */
+    public static final String FILE_DIRECTORY = "temp";
     
     @Autowired
     private TestRepository testRepository;
 
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private DatabaseWriteBehindService databaseWriteBehindService;
+
+    @Autowired
+    private AppendOnlyLogService appendOnlyLogService;
+
     public Map<String, Object> simulateExternalApiCall(String requestId) {
+        if (requestCoalescer.isEnabled()) {
+            // Identical concurrent requests wait for the call already in flight instead of paying the delay again
+            return new HashMap<>(requestCoalescer.execute("blocking-io-api", requestId,
+                    () -> performExternalApiCall(requestId)));
+        }
+        return performExternalApiCall(requestId);
+    }
+
+    private Map<String, Object> performExternalApiCall(String requestId) {
         String currentThread = Thread.currentThread().getName();
         boolean isVirtual = Thread.currentThread().isVirtual();
         
@@ -112,18 +137,25 @@ public class BlockingIoService {
         long startTime = System.currentTimeMillis();
         
         try {
-            // Simulate slow database operation
-            logger.debug("⏳ [DB-SERVICE] Simulating slow database operation (1000ms) | Name: {}", name);
-            Thread.sleep(1000);
-            
             TestEntity entity = new TestEntity();
             entity.setName(name);
             entity.setValue(value);
             entity.setThreadName(currentThread);
             entity.setCreatedAt(LocalDateTime.now());
             
-            logger.debug("💽 [DB-SERVICE] Persisting entity to database | Name: {}", name);
-            TestEntity savedEntity = testRepository.save(entity);
+            TestEntity savedEntity;
+            if (databaseWriteBehindService.isEnabled()) {
+                // The writer pays the database round trip once per batch, without holding a connection for this request
+                logger.debug("📥 [DB-SERVICE] Queueing entity for write-behind | Name: {}", name);
+                savedEntity = databaseWriteBehindService.insert(entity);
+            } else {
+                // Simulate slow database operation
+                logger.debug("⏳ [DB-SERVICE] Simulating slow database operation (1000ms) | Name: {}", name);
+                Thread.sleep(1000);
+                
+                logger.debug("💽 [DB-SERVICE] Persisting entity to database | Name: {}", name);
+                savedEntity = testRepository.save(entity);
+            }
             
             long totalTime = System.currentTimeMillis() - startTime;
             
@@ -131,7 +163,7 @@ public class BlockingIoService {
                        name, savedEntity.getId(), currentThread, totalTime);
             
             Map<String, Object> result = new HashMap<>();
-            result.put("entity", savedEntity);
+            result.put("entity", TestEntityView.from(savedEntity));
             result.put("threadName", currentThread);
             result.put("isVirtualThread", isVirtual);
             result.put("totalTime", totalTime);
@@ -162,23 +194,40 @@ public class BlockingIoService {
         long startTime = System.currentTimeMillis();
         
         try {
-            // Simulate slow file I/O
-            logger.debug("⏳ [FILE-SERVICE] Simulating slow file I/O (1500ms) | Filename: {}", filename);
-            Thread.sleep(1500);
-            
-            String fullPath = "temp/" + filename;
-            logger.debug("📝 [FILE-SERVICE] Writing content to file | Path: {} | Content length: {}", fullPath, content.length());
-            
-            // Create directory if it doesn't exist
-            java.io.File directory = new java.io.File("temp");
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-            
-            try (FileWriter writer = new FileWriter(fullPath)) {
-                writer.write(content);
-                writer.write("\nThread: " + currentThread);
-                writer.write("\nTimestamp: " + LocalDateTime.now());
+            Map<String, Object> result = new HashMap<>();
+            String fullPath;
+            if (appendOnlyLogService.isEnabled()) {
+                // One append to the shared log; the writer pays the write + force once per group of requests
+                logger.debug("📥 [FILE-SERVICE] Appending record to log | Filename: {}", filename);
+                String record = "File: " + filename + "\n" + content
+                        + "\nThread: " + currentThread
+                        + "\nTimestamp: " + LocalDateTime.now();
+                AppendOnlyLogService.LogPosition position =
+                        appendOnlyLogService.appendAndWait(record.getBytes(StandardCharsets.UTF_8));
+                fullPath = position.segment();
+                result.put("sink", "log");
+                result.put("logSegment", position.segment());
+                result.put("logOffset", position.offset());
+            } else {
+                // Simulate slow file I/O
+                logger.debug("⏳ [FILE-SERVICE] Simulating slow file I/O (1500ms) | Filename: {}", filename);
+                Thread.sleep(1500);
+
+                fullPath = FILE_DIRECTORY + "/" + filename;
+                logger.debug("📝 [FILE-SERVICE] Writing content to file | Path: {} | Content length: {}", fullPath, content.length());
+
+                // Create directory if it doesn't exist
+                java.io.File directory = new java.io.File(FILE_DIRECTORY);
+                if (!directory.exists()) {
+                    directory.mkdirs();
+                }
+
+                try (FileWriter writer = new FileWriter(fullPath)) {
+                    writer.write(content);
+                    writer.write("\nThread: " + currentThread);
+                    writer.write("\nTimestamp: " + LocalDateTime.now());
+                }
+                result.put("sink", "file");
             }
             
             long totalTime = System.currentTimeMillis() - startTime;
@@ -186,7 +235,6 @@ public class BlockingIoService {
             logger.info("✅ [FILE-SERVICE] File write completed | Filename: {} | Thread: {} | Duration: {}ms", 
                        filename, currentThread, totalTime);
             
-            Map<String, Object> result = new HashMap<>();
             result.put("filename", filename);
             result.put("fullPath", fullPath);
             result.put("contentLength", content.length());
@@ -237,7 +285,7 @@ public class BlockingIoService {
             logger.info("3️⃣ [COMBINED-SERVICE] Step 3: File write | Filename: {}", filename);
             String fileContent = String.format("Combined operation result for %s\nAPI Response: %s\nDB Entity ID: %s", 
                                              requestId, apiResult.get("data"), 
-                                             ((TestEntity)dbResult.get("entity")).getId());
+                                             ((TestEntityView) dbResult.get("entity")).id());
             Map<String, Object> fileResult = slowFileWrite(filename, fileContent);
             result.put("fileWrite", fileResult);
             
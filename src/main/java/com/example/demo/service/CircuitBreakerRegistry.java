@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.resilience.CircuitBreaker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Named circuit breakers sharing the app.circuit-breaker.* settings. Downstream calls go through
+ * execute/executeAsync with the dependency's breaker name; when the feature is disabled those
+ * run the call directly. Every breaker kept here exports its state, failure rate and call outcomes,
+ * so only the fixed dependency breakers belong here; per-caller breakers come from newBreaker.
+ */
+@Service
+public class CircuitBreakerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
+
+    public static final String EXTERNAL_API = "external-api";
+
+    public static final String DATABASE = "database";
+
+    @Value("${app.circuit-breaker.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.circuit-breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${app.circuit-breaker.slow-call-rate-threshold:0.8}")
+    private double slowCallRateThreshold;
+
+    @Value("${app.circuit-breaker.slow-call-duration-ms:5000}")
+    private long slowCallDurationMs;
+
+    @Value("${app.circuit-breaker.window-size:100}")
+    private int windowSize;
+
+    @Value("${app.circuit-breaker.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${app.circuit-breaker.open-wait-ms:10000}")
+    private long openWaitMs;
+
+    @Value("${app.circuit-breaker.half-open-calls:5}")
+    private int halfOpenCalls;
+
+    @Value("${app.circuit-breaker.max-half-open-wait-ms:30000}")
+    private long maxHalfOpenWaitMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs the call through the named breaker, or directly when circuit breaking is disabled
+     */
+    public <T> T execute(String name, Supplier<T> call) {
+        return enabled ? get(name).execute(call) : call.get();
+    }
+
+    /**
+     * Async variant of execute; the outcome is recorded when the future completes
+     */
+    public <T> CompletableFuture<T> executeAsync(String name, Supplier<CompletableFuture<T>> call) {
+        return enabled ? get(name).executeAsync(call) : call.get();
+    }
+
+    /**
+     * The named breaker, created on first use
+     */
+    public CircuitBreaker get(String name) {
+        CircuitBreaker breaker = breakers.get(name);
+        if (breaker != null) {
+            return breaker;
+        }
+        return breakers.computeIfAbsent(name, key -> register(newBreaker(key, Duration.ofMillis(openWaitMs))));
+    }
+
+    /**
+     * A breaker with the configured settings and the given open wait that is neither kept nor
+     * exported here, for callers that create breakers per id and bound how many they hold
+     */
+    public CircuitBreaker newBreaker(String name, Duration openWait) {
+        return new CircuitBreaker(name, defaultConfig().withOpenWait(openWait),
+                (from, to) -> logger.warn("⚡ [CIRCUIT-BREAKER] {} moved {} -> {}", name, from, to));
+    }
+
+    public Map<String, CircuitBreaker> getBreakers() {
+        return breakers;
+    }
+
+    private CircuitBreaker.Config defaultConfig() {
+        return new CircuitBreaker.Config(failureRateThreshold, slowCallRateThreshold,
+                Duration.ofMillis(slowCallDurationMs), windowSize, minimumCalls,
+                Duration.ofMillis(openWaitMs), halfOpenCalls, Duration.ofMillis(maxHalfOpenWaitMs));
+    }
+
+    private CircuitBreaker register(CircuitBreaker breaker) {
+        String name = breaker.getName();
+        Gauge.builder("circuit.breaker.state", breaker, b -> b.getState().ordinal())
+                .description("Breaker state: 0 = closed, 1 = open, 2 = half-open")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("circuit.breaker.failure.rate", breaker, CircuitBreaker::getFailureRate)
+                .description("Share of failed calls in the rolling window")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("circuit.breaker.slow.call.rate", breaker, CircuitBreaker::getSlowCallRate)
+                .description("Share of slow calls in the rolling window")
+                .tag("name", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("circuit.breaker.calls", breaker, CircuitBreaker::getSuccessfulCalls)
+                .tags("name", name, "outcome", "success")
+                .register(meterRegistry);
+        FunctionCounter.builder("circuit.breaker.calls", breaker, CircuitBreaker::getFailedCalls)
+                .tags("name", name, "outcome", "failure")
+                .register(meterRegistry);
+        FunctionCounter.builder("circuit.breaker.calls", breaker, CircuitBreaker::getRejectedCalls)
+                .tags("name", name, "outcome", "not_permitted")
+                .register(meterRegistry);
+        FunctionCounter.builder("circuit.breaker.slow.calls", breaker, CircuitBreaker::getSlowCalls)
+                .tag("name", name)
+                .register(meterRegistry);
+        return breaker;
+    }
+}
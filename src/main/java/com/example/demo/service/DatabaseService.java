@@ -1,25 +1,91 @@
 package com.example.demo.service;
 
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.demo.dto.NameValue;
+import com.example.demo.dto.TestEntityView;
+import com.example.demo.dto.UpdateOutcome;
+import com.example.demo.dto.ValueUpdate;
 import com.example.demo.entity.TestEntity;
 import com.example.demo.repository.TestRepository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 public class DatabaseService {
 
+    // Ids per IN (...) list, well below what drivers and query planners handle comfortably
+    private static final int IN_LIST_CHUNK = 1000;
+
     @Autowired
     private TestRepository testRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Value("${app.database-operation-delay:1000}")
     private long databaseOperationDelay;
 
+    @Value("${app.database.batch-size:50}")
+    private int batchSize;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Read-only transaction around just the query, for reads whose simulated delay must not hold a connection
+     */
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        if (batchSize <= 0) {
+            throw new IllegalStateException("app.database.batch-size must be positive: " + batchSize);
+        }
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
     /**
      * Simulates slow database insert operation
      */
@@ -37,17 +103,11 @@ public class DatabaseService {
     }
 
     /**
-     * Simulates slow database read operation
+     * Simulates slow database read operation. Only a query that reaches the database pays the
+     * simulated delay; a query cache hit returns at once.
      */
-    public List<TestEntity> slowFindByName(String name) {
-        try {
-            Thread.sleep(databaseOperationDelay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Database operation interrupted", e);
-        }
-
-        return testRepository.findByName(name);
+    public List<TestEntityView> slowFindByName(String name) {
+        return cachedRead(() -> testRepository.findViewsByName(name), databaseOperationDelay);
     }
 
     /**
@@ -64,13 +124,103 @@ public class DatabaseService {
 
         Optional<TestEntity> optionalEntity = testRepository.findById(id);
         if (optionalEntity.isPresent()) {
+            // Managed entity: dirty checking writes the change at commit, with the @Version check
             TestEntity entity = optionalEntity.get();
             entity.setValue(newValue);
-            return testRepository.save(entity);
+            return entity;
         }
         throw new RuntimeException("Entity not found with id: " + id);
     }
 
+    /**
+     * Applies many value changes in JDBC batches of app.database.batch-size with optimistic conflict
+     * detection: a row is only updated if it is still at its expected version. Rows that were not
+     * updated, or whose count the driver did not report (SUCCESS_NO_INFO), are classified with
+     * follow-up queries. Outcomes are returned in request order.
+     */
+    @Transactional
+    public List<UpdateOutcome> bulkUpdate(List<ValueUpdate> updates) {
+        for (ValueUpdate update : updates) {
+            if (update.id() == null || update.expectedVersion() == null) {
+                throw new IllegalArgumentException("Bulk update requires id and expectedVersion for every row");
+            }
+        }
+
+        int[][] batchCounts = jdbcTemplate.batchUpdate(
+                "UPDATE test_data SET test_value = ?, version = version + 1 WHERE id = ? AND version = ?",
+                updates, batchSize, (statement, update) -> {
+                    statement.setString(1, update.value());
+                    statement.setLong(2, update.id());
+                    statement.setLong(3, update.expectedVersion());
+                });
+        int[] counts = Arrays.stream(batchCounts).flatMapToInt(Arrays::stream).toArray();
+
+        List<Long> unresolved = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                unresolved.add(updates.get(i).id());
+            } else if (counts[i] < 0) {
+                throw new RuntimeException("Bulk update failed for id: " + updates.get(i).id());
+            }
+        }
+        Map<Long, CurrentRow> currentRows = findCurrentRows(unresolved);
+
+        List<Long> updatedIds = new ArrayList<>();
+        List<UpdateOutcome> outcomes = new ArrayList<>(updates.size());
+        for (int i = 0; i < counts.length; i++) {
+            ValueUpdate update = updates.get(i);
+            CurrentRow current = currentRows.get(update.id());
+            // Without a count, the row was ours if it now holds the new version and value
+            boolean updated = counts[i] > 0 || (counts[i] == Statement.SUCCESS_NO_INFO && current != null
+                    && current.version() == update.expectedVersion() + 1
+                    && Objects.equals(current.value(), update.value()));
+            if (updated) {
+                updatedIds.add(update.id());
+                outcomes.add(new UpdateOutcome(update.id(), UpdateOutcome.Status.UPDATED, update.expectedVersion() + 1));
+            } else if (current != null) {
+                outcomes.add(new UpdateOutcome(update.id(), UpdateOutcome.Status.CONFLICT, current.version()));
+            } else {
+                outcomes.add(new UpdateOutcome(update.id(), UpdateOutcome.Status.NOT_FOUND, null));
+            }
+        }
+
+        // The JDBC batch bypasses Hibernate, so drop cached copies once the new values are visible
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictCached(updatedIds);
+            }
+        });
+        return outcomes;
+    }
+
+    /**
+     * Version and value of the given rows, queried IN_LIST_CHUNK ids at a time
+     */
+    private Map<Long, CurrentRow> findCurrentRows(List<Long> ids) {
+        Map<Long, CurrentRow> rows = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + IN_LIST_CHUNK));
+            namedParameterJdbcTemplate.query("SELECT id, version, test_value FROM test_data WHERE id IN (:ids)",
+                    Map.of("ids", chunk), row -> {
+                        rows.put(row.getLong("id"), new CurrentRow(row.getLong("version"), row.getString("test_value")));
+                    });
+        }
+        return rows;
+    }
+
+    private record CurrentRow(long version, String value) {
+    }
+
+    private void evictCached(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        ids.forEach(id -> entityManagerFactory.getCache().evict(TestEntity.class, id));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+
     /**
      * Simulates multiple slow database operations
      */
@@ -91,6 +241,46 @@ public class DatabaseService {
         return testRepository.findByValueContaining(baseName);
     }
 
+    /**
+     * Bulk insert written in JDBC batches of app.database.batch-size rows.
+     * The persistence context is flushed and cleared after every batch, so memory stays flat.
+     */
+    @Transactional
+    public int bulkInsert(List<NameValue> rows) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        int count = 0;
+        for (NameValue row : rows) {
+            entityManager.persist(new TestEntity(row.name(), row.value()));
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        return count;
+    }
+
+    /**
+     * Row-by-row insert with one INSERT round trip per row, the baseline for bulkInsert
+     */
+    @Transactional
+    public int insertRowByRow(List<NameValue> rows) {
+        for (NameValue row : rows) {
+            entityManager.persist(new TestEntity(row.name(), row.value()));
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        return rows.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     /**
      * Simulates very slow database operation
      */
@@ -110,21 +300,142 @@ public class DatabaseService {
     /**
      * Get all entities (for testing purposes)
      */
-    public List<TestEntity> getAllEntities() {
-        return testRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<TestEntityView> getAllEntities() {
+        return testRepository.findAllViews();
     }
 
     /**
-     * Get recent entities
+     * One page of entities, newest first. Pass the createdAt/id of the last row of the previous
+     * page to continue; both null starts from the newest row.
      */
-    public List<TestEntity> getRecentEntities(int limit) {
-        try {
-            Thread.sleep(databaseOperationDelay / 2);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Database operation interrupted", e);
+    @Transactional(readOnly = true)
+    public Slice<TestEntityView> getEntitiesPage(LocalDateTime afterCreatedAt, Long afterId, int size) {
+        Pageable pageable = Pageable.ofSize(size);
+        if (afterCreatedAt == null || afterId == null) {
+            return testRepository.findFirstPage(pageable);
+        }
+        return testRepository.findPageAfter(afterCreatedAt, afterId, pageable);
+    }
+
+    /**
+     * Streams every row to the consumer in (createdAt, id) order.
+     * Rows are projections, so nothing accumulates in the persistence context regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public long streamAllEntities(Consumer<TestEntityView> consumer) {
+        long count = 0;
+        try (Stream<TestEntityView> views = testRepository.streamAllOrdered()) {
+            for (TestEntityView view : (Iterable<TestEntityView>) views::iterator) {
+                consumer.accept(view);
+                count++;
+            }
         }
+        return count;
+    }
+
+    /**
+     * Word search on test_value through the full-text index
+     */
+    @Transactional(readOnly = true)
+    public List<TestEntityView> searchByValue(String text, int limit) {
+        return testRepository.searchByValue(text, limit).stream().map(TestEntityView::from).toList();
+    }
+
+    public long countEntities() {
+        return testRepository.count();
+    }
+
+    /**
+     * Highest N of the rows named {baseName}_N, or 0 if there are none
+     */
+    @Transactional(readOnly = true)
+    public long lastGeneratedKey(String baseName) {
+        return testRepository.findMaxNameSuffix(baseName + "_");
+    }
 
-        return testRepository.findRecentEntries(limit);
+    /**
+     * Times each lookup path against rows named {baseName}_1..{baseName}_{keyRange}.
+     * Returns latency stats in microseconds per lookup.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> measureLookups(String baseName, int keyRange, int samples) {
+        Map<String, Object> results = new LinkedHashMap<>();
+        String threadName = Thread.currentThread().getName();
+
+        results.put("findByName", measure(samples, key -> testRepository.findByName(baseName + "_" + key), keyRange));
+        results.put("countByThreadName", measure(samples, key -> testRepository.countByThreadName(threadName), keyRange));
+        results.put("searchByValue", measure(samples, key -> testRepository.searchByValue(String.valueOf(key), 10), keyRange));
+        results.put("findByValueContaining", measure(samples, key -> testRepository.findByValueContaining("Value_" + key), keyRange));
+        return results;
+    }
+
+    private Map<String, Object> measure(int samples, IntFunction<?> lookup, int keyRange) {
+        // Unmeasured warm-up so JIT compilation does not land in the first samples
+        for (int i = 0; i < Math.max(1, samples / 10); i++) {
+            lookup.apply(ThreadLocalRandom.current().nextInt(keyRange) + 1);
+            entityManager.clear();
+        }
+
+        long[] micros = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            int key = ThreadLocalRandom.current().nextInt(keyRange) + 1;
+            long startTime = System.nanoTime();
+            lookup.apply(key);
+            micros[i] = (System.nanoTime() - startTime) / 1_000;
+            entityManager.clear();
+        }
+        Arrays.sort(micros);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("avgMicros", Arrays.stream(micros).average().orElse(0));
+        stats.put("p50Micros", micros[samples / 2]);
+        stats.put("p99Micros", micros[Math.min(samples - 1, (int) (samples * 0.99))]);
+        stats.put("maxMicros", micros[samples - 1]);
+        return stats;
+    }
+
+    /**
+     * Get recent entities; like slowFindByName, cache hits skip the simulated delay
+     */
+    public List<TestEntityView> getRecentEntities(int limit) {
+        return cachedRead(() -> testRepository.findRecentViews(Limit.of(limit)), databaseOperationDelay / 2);
+    }
+
+    /**
+     * Runs a cacheable query in a read-only transaction, then sleeps for delayMillis if it executed
+     * any SQL. The delay runs after the transaction ends, so no pooled connection is held while sleeping.
+     */
+    private <T> T cachedRead(Supplier<T> query, long delayMillis) {
+        StatementCounter statements = new StatementCounter();
+        T result = readOnlyTransaction.execute(status -> {
+            entityManager.unwrap(Session.class).addEventListeners(statements);
+            return query.get();
+        });
+
+        if (statements.executed > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Database operation interrupted", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the JDBC statements one session executes; zero means every read was served from cache
+     */
+    private static final class StatementCounter implements SessionEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private int executed;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executed++;
+        }
     }
 }
\ No newline at end of file
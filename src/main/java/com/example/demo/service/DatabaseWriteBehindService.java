@@ -0,0 +1,241 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.TestEntity;
+import com.example.demo.repository.TestRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for inserts. Callers enqueue rows and get a future; a single writer thread
+ * drains the bounded queue and commits rows in batches, so one transaction and one simulated
+ * database round trip are shared by every row in the batch (group commit).
+ * Rows still queued at shutdown are flushed before the application context closes.
+ */
+@Service
+public class DatabaseWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseWriteBehindService.class);
+
+    @Value("${app.database.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.database.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.database.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.database.write-behind.linger-ms:10}")
+    private long lingerMs;
+
+    @Value("${app.database.write-behind.offer-timeout-ms:1000}")
+    private long offerTimeoutMs;
+
+    @Value("${app.database.write-behind.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${app.database-operation-delay:1000}")
+    private long databaseOperationDelay;
+
+    @Autowired
+    private TestRepository testRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingInsert> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread writer;
+
+    private volatile boolean accepting;
+
+    private DistributionSummary batchSizes;
+
+    private Timer batchWrites;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("db.write.behind.queue.depth", queue, BlockingQueue::size)
+                .description("Inserts waiting for the write-behind writer")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("db.write.behind.batch.size")
+                .description("Rows committed per write-behind transaction")
+                .register(meterRegistry);
+        batchWrites = Timer.builder("db.write.behind.batch.duration")
+                .description("Time to commit one write-behind batch")
+                .register(meterRegistry);
+
+        accepting = true;
+        writer = new Thread(this::drainLoop, "db-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an insert; the future completes with the saved entity once its batch is committed
+     */
+    public CompletableFuture<TestEntity> submit(TestEntity entity) {
+        if (!accepting) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Write-behind buffer is not accepting inserts"));
+        }
+
+        PendingInsert pending = new PendingInsert(entity, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new RuntimeException("Write-behind queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new RuntimeException("Write-behind insert interrupted", e));
+        }
+        // Shutdown stops accepting before its final drain, so an offer that landed too late for
+        // that drain sees accepting == false here; whoever removes the entry completes it
+        if (!accepting && queue.remove(pending)) {
+            pending.result().completeExceptionally(new IllegalStateException("Write-behind buffer shut down"));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Queues an insert and waits until it is durable
+     */
+    public TestEntity insert(TestEntity entity) {
+        try {
+            return submit(entity).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Write-behind insert failed", e.getCause());
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Linger briefly so rows arriving together share one commit
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize && accepting) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown waits for the loop to finish draining, so keep going
+                logger.warn("⚠️ [WRITE-BEHIND] Writer interrupted, continuing to drain | Queued: {}", queue.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingInsert> batch) throws InterruptedException {
+        List<TestEntity> entities = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            entities.add(pending.entity());
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            // One simulated database round trip for the whole batch
+            Thread.sleep(databaseOperationDelay);
+
+            List<TestEntity> saved = transactionTemplate.execute(status -> testRepository.saveAll(entities));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+        } catch (InterruptedException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(
+                    new RuntimeException("Write-behind batch interrupted", e)));
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("💥 [WRITE-BEHIND] Batch of {} rows failed | Error: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        } finally {
+            batchSizes.record(batch.size());
+            batchWrites.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+
+        accepting = false;
+        logger.info("💾 [WRITE-BEHIND] Flushing {} queued inserts before shutdown", queue.size());
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writer.isAlive()) {
+            logger.error("🚫 [WRITE-BEHIND] Writer did not finish within {}ms | Still queued: {}",
+                    shutdownTimeoutMs, queue.size());
+            return;
+        }
+
+        // Inserts that raced with shutdown after the writer's last drain
+        PendingInsert pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("Write-behind buffer shut down"));
+        }
+    }
+
+    private record PendingInsert(TestEntity entity, CompletableFuture<TestEntity> result) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.client.ExternalApiClient;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bounded response cache in front of the external API client.
+ * Caffeine evicts by W-TinyLFU once maximum-size is reached, expires entries after the TTL,
+ * and reloads hot entries in the background once they are older than refresh-after.
+ */
+@Service
+public class ExternalApiResponseCache {
+
+    @Value("${app.external-api.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.external-api.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.external-api.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${app.external-api.cache.refresh-after-ms:45000}")
+    private long refreshAfterMs;
+
+    @Autowired
+    private ExternalApiClient externalApiClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Runs background refreshes and the misses of getAsync
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private LoadingCache<String, CachedResponse> cache;
+
+    private DistributionSummary latencySaved;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .refreshAfterWrite(Duration.ofMillis(refreshAfterMs))
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::load);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "externalApiResponses");
+
+        latencySaved = DistributionSummary.builder("external.api.cache.latency.saved")
+                .description("Downstream latency avoided by serving a cached response")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached response, loading it on a miss
+     */
+    public Map<String, Object> get(String requestId) {
+        long startTime = System.nanoTime();
+        CachedResponse cached = cache.get(requestId);
+
+        // Anything loaded before this call started was served from the cache
+        boolean hit = cached.loadedAt() < startTime;
+        if (hit) {
+            latencySaved.record(cached.loadTimeMs());
+        }
+
+        Map<String, Object> response = new HashMap<>(cached.response());
+        response.put("cacheHit", hit);
+        response.put("cacheAgeMs", (System.nanoTime() - cached.loadedAt()) / 1_000_000);
+        return response;
+    }
+
+    /**
+     * Async variant of get: a cached response completes at once, a miss loads on a virtual thread
+     */
+    public CompletableFuture<Map<String, Object>> getAsync(String requestId) {
+        // Quiet lookup, so the hit or miss is only counted once, by get
+        if (cache.policy().getIfPresentQuietly(requestId) != null) {
+            return CompletableFuture.completedFuture(get(requestId));
+        }
+        return CompletableFuture.supplyAsync(() -> get(requestId), refreshExecutor);
+    }
+
+    private CachedResponse load(String requestId) {
+        long startTime = System.nanoTime();
+        // While the breaker is open a failed refresh keeps serving the previous response
+        Map<String, Object> response = circuitBreakers.execute(CircuitBreakerRegistry.EXTERNAL_API,
+                () -> externalApiClient.call(requestId));
+        long loadedAt = System.nanoTime();
+        return new CachedResponse(response, loadedAt, (loadedAt - startTime) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record CachedResponse(Map<String, Object> response, long loadedAt, long loadTimeMs) {
+    }
+}
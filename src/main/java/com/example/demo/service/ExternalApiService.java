@@ -1,12 +1,20 @@
 package com.example.demo.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import com.example.demo.client.ExternalApiClient;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class ExternalApiService {
@@ -14,43 +22,66 @@ public class ExternalApiService {
     @Value("${app.external-api-delay:2000}")
     private long externalApiDelay;
 
-    private final RestTemplate restTemplate;
+    @Autowired
+    private ExternalApiClient externalApiClient;
 
-    public ExternalApiService() {
-        this.restTemplate = new RestTemplate();
-    }
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private ExternalApiResponseCache responseCache;
+
+    @Autowired
+    private RequestHedger requestHedger;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
 
     /**
-     * Simulates a slow external API call using Thread.sleep
+     * Slow external API call through the configured client engine.
+     * Served from the response cache when enabled; otherwise hedged, or coalesced with identical
+     * concurrent calls, depending on which modes are enabled. Downstream calls go through the
+     * external-api circuit breaker, which fails them fast while the API keeps failing.
      */
     public Map<String, Object> callSlowExternalApi(String requestId) {
-        try {
-            Thread.sleep(externalApiDelay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("API call interrupted", e);
+        if (responseCache.isEnabled()) {
+            return responseCache.get(requestId);
         }
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("requestId", requestId);
-        response.put("status", "success");
-        response.put("data", "External API response for " + requestId);
-        response.put("timestamp", System.currentTimeMillis());
-        response.put("threadName", Thread.currentThread().getName());
-        response.put("delay", externalApiDelay);
-
-        return response;
+        if (requestHedger.isEnabled()) {
+            // Hedges must reach the engine directly; coalescing would merge them back into one call
+            return await(circuitBreakers.executeAsync(CircuitBreakerRegistry.EXTERNAL_API,
+                    () -> requestHedger.execute(() -> externalApiClient.callAsync(requestId))));
+        }
+        if (requestCoalescer.isEnabled()) {
+            return new HashMap<>(requestCoalescer.execute("external-api", requestId,
+                    () -> circuitBreakers.execute(CircuitBreakerRegistry.EXTERNAL_API,
+                            () -> externalApiClient.call(requestId))));
+        }
+        return circuitBreakers.execute(CircuitBreakerRegistry.EXTERNAL_API, () -> externalApiClient.call(requestId));
     }
 
     /**
-     * Simulates multiple external API calls
+     * Multiple external API calls, issued together and multiplexed by the client engine
      */
     public Map<String, Object> callMultipleExternalApis(String requestId, int count) {
-        Map<String, Object> responses = new HashMap<>();
+        List<CompletableFuture<Map<String, Object>>> calls = new ArrayList<>();
         for (int i = 1; i <= count; i++) {
-            String apiRequestId = requestId + "_api_" + i;
-            Map<String, Object> response = callSlowExternalApi(apiRequestId);
-            responses.put("api_" + i, response);
+            String callId = requestId + "_api_" + i;
+            calls.add(circuitBreakers.executeAsync(CircuitBreakerRegistry.EXTERNAL_API,
+                    () -> externalApiClient.callAsync(callId)));
+        }
+
+        Map<String, Object> responses = new HashMap<>();
+        try {
+            for (int i = 1; i <= count; i++) {
+                responses.put("api_" + i, calls.get(i - 1).join());
+            }
+        } catch (CompletionException e) {
+            calls.forEach(call -> call.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("API call failed", e.getCause());
         }
         return responses;
     }
@@ -78,16 +109,40 @@ public class ExternalApiService {
     }
 
     /**
-     * Simulates async external API call
+     * Async external API call, completed by the client engine without blocking the caller.
+     * Served from the response cache, hedged or coalesced in the same order as callSlowExternalApi.
      */
     public CompletableFuture<Map<String, Object>> callExternalApiAsync(String requestId) {
-        return CompletableFuture.supplyAsync(() -> callSlowExternalApi(requestId));
+        if (responseCache.isEnabled()) {
+            return responseCache.getAsync(requestId);
+        }
+        if (requestHedger.isEnabled()) {
+            return circuitBreakers.executeAsync(CircuitBreakerRegistry.EXTERNAL_API,
+                    () -> requestHedger.execute(() -> externalApiClient.callAsync(requestId)));
+        }
+        if (requestCoalescer.isEnabled()) {
+            return requestCoalescer.executeAsync("external-api", requestId,
+                    () -> circuitBreakers.executeAsync(CircuitBreakerRegistry.EXTERNAL_API,
+                            () -> externalApiClient.callAsync(requestId))).thenApply(HashMap::new);
+        }
+        return circuitBreakers.executeAsync(CircuitBreakerRegistry.EXTERNAL_API,
+                () -> externalApiClient.callAsync(requestId));
     }
 
     /**
-     * Simulates a timeout scenario
+     * External API call capped at timeoutMs. In hedging mode a slow first attempt is raced against
+     * a duplicate request; otherwise the timeout scenario is simulated.
      */
     public Map<String, Object> callExternalApiWithTimeout(String requestId, long timeoutMs) {
+        if (requestHedger.isEnabled()) {
+            Map<String, Object> response = new HashMap<>(await(circuitBreakers.executeAsync(
+                    CircuitBreakerRegistry.EXTERNAL_API,
+                    () -> requestHedger.execute(() -> externalApiClient.callAsync(requestId))
+                            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS))));
+            response.put("timeout", timeoutMs);
+            return response;
+        }
+
         try {
             Thread.sleep(Math.min(externalApiDelay, timeoutMs));
         } catch (InterruptedException e) {
@@ -105,4 +160,22 @@ public class ExternalApiService {
 
         return response;
     }
+
+    private Map<String, Object> await(CompletableFuture<Map<String, Object>> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("API call interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new RuntimeException("API call timed out", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("API call failed", e.getCause());
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class FanOutService {
+
+    /**
+     * Deadline of the outermost fan-out, inherited by nested fan-outs running in forked subtasks
+     */
+    private static final ScopedValue<Instant> DEADLINE = ScopedValue.newInstance();
+
+    @Value("${app.fan-out.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.fan-out.deadline-ms:15000}")
+    private long deadlineMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs independent calls concurrently on virtual threads and returns their results in submission order.
+     * The first failure cancels the remaining calls, and all calls share one per-request deadline.
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        Instant deadline = DEADLINE.isBound() ? DEADLINE.get() : Instant.now().plusMillis(deadlineMs);
+
+        try {
+            return ScopedValue.where(DEADLINE, deadline).call(() -> forkAndJoin(tasks, deadline));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Fan-out failed", e);
+        }
+    }
+
+    private <T> List<T> forkAndJoin(List<Callable<T>> tasks, Instant deadline) {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            List<Subtask<T>> subtasks = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                subtasks.add(scope.fork(task));
+            }
+
+            scope.joinUntil(deadline);
+            // Unchecked failures pass through as they are, like a direct call's would (e.g. an open circuit)
+            scope.throwIfFailed(e -> e instanceof RuntimeException runtimeException
+                    ? runtimeException : new RuntimeException("Fan-out subtask failed", e));
+
+            List<T> results = new ArrayList<>(subtasks.size());
+            for (Subtask<T> subtask : subtasks) {
+                results.add(subtask.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Fan-out interrupted", e);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Fan-out deadline exceeded", e);
+        }
+    }
+}
@@ -1,24 +1,90 @@
 package com.example.demo.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.fileio.AsyncFileChannelIo;
+import com.example.demo.fileio.BlockCompressedFile;
+import com.example.demo.fileio.ChunkedLineProcessor;
+import com.example.demo.fileio.FileIoEngine;
+import com.example.demo.fileio.LineStatistics;
+
+import jakarta.annotation.PostConstruct;
+
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class FileIOService {
 
+    private static final String ASYNC_ENGINE = "async-channel";
+
     @Value("${app.file-operation-delay:1500}")
     private long fileOperationDelay;
 
-    private final String tempDir = System.getProperty("java.io.tmpdir");
+    @Value("${app.file-io.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${app.file-io.batch.max-concurrency:16}")
+    private int batchMaxConcurrency;
+
+    @Value("${app.file-io.engine:standard}")
+    private String engineName;
+
+    /**
+     * Directory owned by this service; downloads and range reads never look outside it
+     */
+    @Value("${app.file-io.directory:${java.io.tmpdir}/demo-file-io}")
+    private String fileDirectoryName;
+
+    @Autowired
+    private List<FileIoEngine> engines;
+
+    private FileIoEngine engine;
+
+    @Autowired
+    private ChunkedLineProcessor lineProcessor;
+
+    @Autowired
+    private TempFileIndex tempFileIndex;
+
+    @Autowired
+    private AsyncFileChannelIo asyncFileIo;
+
+    private Path fileDirectory;
+
+    @PostConstruct
+    public void init() {
+        engine = engines.stream()
+                .filter(candidate -> candidate.getEngine().equals(engineName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown app.file-io.engine: " + engineName));
+        try {
+            fileDirectory = Files.createDirectories(Paths.get(fileDirectoryName)).toAbsolutePath().normalize();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create app.file-io.directory: " + fileDirectoryName, e);
+        }
+    }
 
     /**
      * Simulates slow file write operation
@@ -32,13 +98,16 @@ public class FileIOService {
         }
 
         try {
-            Path filePath = Paths.get(tempDir, filename);
-            Files.write(filePath, content.getBytes());
+            Path filePath = resolveIn(fileDirectory, filename);
+            long bytesWritten = engine.write(filePath, content);
+            tempFileIndex.track(filePath, prefixOf(filename));
 
             Map<String, Object> result = new HashMap<>();
             result.put("filename", filename);
             result.put("filePath", filePath.toString());
             result.put("contentLength", content.length());
+            result.put("bytesWritten", bytesWritten);
+            result.put("engine", engine.getEngine());
             result.put("threadName", Thread.currentThread().getName());
             result.put("timestamp", System.currentTimeMillis());
             result.put("operation", "write");
@@ -61,20 +130,22 @@ public class FileIOService {
         }
 
         try {
-            Path filePath = Paths.get(tempDir, filename);
+            Path filePath = resolveIn(fileDirectory, filename);
             if (!Files.exists(filePath)) {
                 // Create a sample file if it doesn't exist
                 String sampleContent = "Sample content for " + filename + " created at " + System.currentTimeMillis();
-                Files.write(filePath, sampleContent.getBytes());
+                engine.write(filePath, sampleContent);
+                tempFileIndex.track(filePath, prefixOf(filename));
             }
 
-            String content = Files.readString(filePath);
+            String content = engine.read(filePath);
 
             Map<String, Object> result = new HashMap<>();
             result.put("filename", filename);
             result.put("filePath", filePath.toString());
             result.put("content", content);
             result.put("contentLength", content.length());
+            result.put("engine", engine.getEngine());
             result.put("threadName", Thread.currentThread().getName());
             result.put("timestamp", System.currentTimeMillis());
             result.put("operation", "read");
@@ -86,7 +157,241 @@ public class FileIOService {
     }
 
     /**
-     * Simulates processing large file
+     * Async variant of slowFileWrite on AsynchronousFileChannel. The simulated delay is a timer, not a
+     * sleeping thread, and the write runs on the bounded async I/O pool.
+     */
+    public CompletableFuture<Map<String, Object>> fileWriteAsync(String filename, String content) {
+        Path filePath = resolveIn(fileDirectory, filename);
+        return afterOperationDelay()
+                .thenCompose(ignored -> asyncFileIo.write(filePath, content.getBytes(StandardCharsets.UTF_8)))
+                .thenApply(bytesWritten -> {
+                    tempFileIndex.track(filePath, prefixOf(filename));
+
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("filename", filename);
+                    result.put("filePath", filePath.toString());
+                    result.put("contentLength", content.length());
+                    result.put("bytesWritten", bytesWritten);
+                    result.put("engine", ASYNC_ENGINE);
+                    result.put("threadName", Thread.currentThread().getName());
+                    result.put("timestamp", System.currentTimeMillis());
+                    result.put("operation", "write");
+                    return result;
+                });
+    }
+
+    /**
+     * Async variant of slowFileRead; fails with NoSuchFileException if the file does not exist.
+     * Files written by the compressed engine are inflated in memory once loaded.
+     */
+    public CompletableFuture<Map<String, Object>> fileReadAsync(String filename) {
+        Path filePath = resolveIn(fileDirectory, filename);
+        return afterOperationDelay()
+                .thenCompose(ignored -> asyncFileIo.read(filePath))
+                .thenApply(bytes -> {
+                    String content = decodeContent(bytes);
+
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("filename", filename);
+                    result.put("filePath", filePath.toString());
+                    result.put("content", content);
+                    result.put("contentLength", content.length());
+                    result.put("engine", ASYNC_ENGINE);
+                    result.put("threadName", Thread.currentThread().getName());
+                    result.put("timestamp", System.currentTimeMillis());
+                    result.put("operation", "read");
+                    return result;
+                });
+    }
+
+    private String decodeContent(byte[] bytes) {
+        try {
+            if (BlockCompressedFile.isBlockCompressed(bytes)) {
+                try (BlockCompressedFile file = BlockCompressedFile.wrap(bytes)) {
+                    bytes = file.readAll();
+                }
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("File read operation failed", e);
+        }
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    private CompletableFuture<Void> afterOperationDelay() {
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(fileOperationDelay, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Resolves a downloadable file: "file-io" serves files written by this service (its own directory,
+     * not the shared temp directory), "blocking-io" those written by BlockingIoService. Names that would
+     * escape the directory are rejected.
+     */
+    public Path resolveDownload(String source, String filename) {
+        Path root = switch (source) {
+            case "file-io" -> fileDirectory;
+            case "blocking-io" -> Paths.get(BlockingIoService.FILE_DIRECTORY);
+            default -> throw new IllegalArgumentException("Unknown file source: " + source);
+        };
+        return resolveIn(root, filename);
+    }
+
+    /**
+     * filename inside root, rejecting names (or symlinks) that lead outside it
+     */
+    private Path resolveIn(Path root, String filename) {
+        root = root.toAbsolutePath().normalize();
+
+        Path filePath = root.resolve(filename).normalize();
+        if (!filePath.startsWith(root) || filePath.equals(root)) {
+            throw new IllegalArgumentException("Invalid filename: " + filename);
+        }
+        try {
+            // A symlink inside the directory must not lead outside it either
+            if (Files.exists(filePath) && !filePath.toRealPath().startsWith(root.toRealPath())) {
+                throw new IllegalArgumentException("Invalid filename: " + filename);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to resolve file: " + filename, e);
+        }
+        return filePath;
+    }
+
+    /**
+     * Write/read throughput of every engine across payload sizes, with heap bytes allocated per operation.
+     * Payloads are held as Strings, so the largest size needs a few times that much heap.
+     */
+    public Map<String, Object> benchmarkEngines(List<Long> sizes, int iterations) {
+        List<Map<String, Object>> runs = new ArrayList<>();
+
+        for (long size : sizes) {
+            String payload = samplePayload(size);
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("sizeBytes", size);
+
+            for (FileIoEngine candidate : engines) {
+                Path filePath = fileDirectory.resolve("file-io-benchmark-" + candidate.getEngine() + ".txt");
+                try {
+                    // Warm-up round, not measured
+                    candidate.write(filePath, payload);
+                    candidate.read(filePath);
+
+                    long writeNanos = 0;
+                    long writeAllocated = 0;
+                    long readNanos = 0;
+                    long readAllocated = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        long allocatedBefore = allocatedBytes();
+                        long startTime = System.nanoTime();
+                        candidate.write(filePath, payload);
+                        writeNanos += System.nanoTime() - startTime;
+                        writeAllocated += allocatedBytes() - allocatedBefore;
+
+                        allocatedBefore = allocatedBytes();
+                        startTime = System.nanoTime();
+                        candidate.read(filePath);
+                        readNanos += System.nanoTime() - startTime;
+                        readAllocated += allocatedBytes() - allocatedBefore;
+                    }
+
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("writeMicros", writeNanos / iterations / 1_000);
+                    stats.put("writeMBps", megabytesPerSecond(size * iterations, writeNanos));
+                    stats.put("writeAllocatedBytes", writeAllocated / iterations);
+                    stats.put("readMicros", readNanos / iterations / 1_000);
+                    stats.put("readMBps", megabytesPerSecond(size * iterations, readNanos));
+                    stats.put("readAllocatedBytes", readAllocated / iterations);
+                    stats.put("bytesOnDisk", Files.size(filePath));
+                    run.put(candidate.getEngine(), stats);
+                } catch (IOException e) {
+                    throw new RuntimeException("File I/O benchmark failed", e);
+                } finally {
+                    try {
+                        Files.deleteIfExists(filePath);
+                    } catch (IOException e) {
+                        System.err.println("Failed to delete file: " + filePath);
+                    }
+                }
+            }
+            runs.add(run);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("activeEngine", engine.getEngine());
+        result.put("iterations", iterations);
+        result.put("runs", runs);
+        result.put("threadName", Thread.currentThread().getName());
+        result.put("timestamp", System.currentTimeMillis());
+        result.put("operation", "benchmark");
+        return result;
+    }
+
+    private String samplePayload(long size) {
+        String line = "Line of sample data for the file I/O engine benchmark\n";
+        int length = Math.toIntExact(size);
+        return line.repeat(length / line.length() + 1).substring(0, length);
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private double megabytesPerSecond(long bytes, long nanos) {
+        return nanos == 0 ? 0 : bytes / 1_048_576.0 / (nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Reads length bytes at offset of a file resolved by resolveDownload. Block-compressed files only
+     * inflate the blocks that overlap the range, and offsets refer to the uncompressed content.
+     */
+    public Map<String, Object> readRange(Path filePath, long offset, int length) {
+        byte[] bytes = new byte[length];
+        int read;
+        long fileSize;
+        boolean compressed;
+
+        try {
+            compressed = BlockCompressedFile.isBlockCompressed(filePath);
+            if (compressed) {
+                try (BlockCompressedFile file = BlockCompressedFile.open(filePath)) {
+                    read = file.read(offset, bytes, 0, length);
+                    fileSize = file.uncompressedSize();
+                }
+            } else {
+                try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    read = 0;
+                    int count;
+                    while (buffer.hasRemaining() && (count = channel.read(buffer, offset + read)) > 0) {
+                        read += count;
+                    }
+                    fileSize = channel.size();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("File range read failed", e);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("filename", filePath.getFileName().toString());
+        result.put("offset", offset);
+        result.put("bytesRead", Math.max(read, 0));
+        result.put("content", read > 0 ? new String(bytes, 0, read, StandardCharsets.UTF_8) : "");
+        result.put("fileSize", fileSize);
+        result.put("compressed", compressed);
+        result.put("threadName", Thread.currentThread().getName());
+        result.put("timestamp", System.currentTimeMillis());
+        result.put("operation", "read-range");
+        return result;
+    }
+
+    /**
+     * Generates a file of lineCount lines, then computes line statistics over it with the
+     * chunked parallel processor. Memory use does not grow with the file size.
      */
     public Map<String, Object> processLargeFile(String filename, int lineCount) {
         try {
@@ -97,88 +402,143 @@ public class FileIOService {
         }
 
         try {
-            Path filePath = Paths.get(tempDir, filename);
-            
-            // Create large file
-            try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
+            Path filePath = resolveIn(fileDirectory, filename);
+
+            try (BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(engine.newOutputStream(filePath), StandardCharsets.UTF_8))) {
                 for (int i = 1; i <= lineCount; i++) {
-                    writer.write("Line " + i + " - Sample data for testing file I/O performance");
+                    writer.write("Line ");
+                    writer.write(Integer.toString(i));
+                    writer.write(" - Sample data for testing file I/O performance");
                     writer.newLine();
-                    
-                    // Add delay every 100 lines to simulate slow processing
-                    if (i % 100 == 0) {
-                        Thread.sleep(10);
-                    }
                 }
             }
+            tempFileIndex.track(filePath, prefixOf(filename));
 
-            // Read and process the file
-            List<String> processedLines = new ArrayList<>();
-            try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-                String line;
-                int processedCount = 0;
-                while ((line = reader.readLine()) != null && processedCount < 10) {
-                    processedLines.add("Processed: " + line);
-                    processedCount++;
-                    Thread.sleep(5); // Simulate processing time
-                }
-            }
+            long startTime = System.nanoTime();
+            LineStatistics statistics = lineProcessor.process(filePath);
+            long processingNanos = System.nanoTime() - startTime;
 
             Map<String, Object> result = new HashMap<>();
             result.put("filename", filename);
             result.put("filePath", filePath.toString());
-            result.put("totalLines", lineCount);
-            result.put("processedLines", processedLines);
-            result.put("fileSize", Files.size(filePath));
+            result.put("totalLines", statistics.lines());
+            result.put("blankLines", statistics.blankLines());
+            result.put("words", statistics.words());
+            result.put("minLineLength", statistics.minLineLength());
+            result.put("maxLineLength", statistics.maxLineLength());
+            result.put("averageLineLength", statistics.averageLineLength());
+            result.put("fileSize", statistics.bytes());
+            result.put("bytesOnDisk", Files.size(filePath));
+            result.put("engine", engine.getEngine());
+            result.put("processingTime", processingNanos / 1_000_000);
+            result.put("throughputMBps", megabytesPerSecond(statistics.bytes(), processingNanos));
+            result.put("parallelism", lineProcessor.getParallelism());
             result.put("threadName", Thread.currentThread().getName());
             result.put("timestamp", System.currentTimeMillis());
             result.put("operation", "process");
 
             return result;
-        } catch (IOException | InterruptedException e) {
+        } catch (IOException e) {
             throw new RuntimeException("File processing operation failed", e);
         }
     }
 
     /**
-     * Simulates multiple file operations
+     * Write-then-read of count files, one virtual thread per file with at most
+     * app.file-io.batch.max-concurrency files in flight. Results come back in file order.
      */
-    public List<Map<String, Object>> performMultipleFileOperations(String baseFilename, int count) {
-        List<Map<String, Object>> results = new ArrayList<>();
-
-        for (int i = 1; i <= count; i++) {
-            String filename = baseFilename + "_" + i + ".txt";
-            String content = "Content for file " + i + " created at " + System.currentTimeMillis();
-            
-            // Write file
+    public Map<String, Object> performMultipleFileOperations(String baseFilename, int count) {
+        Semaphore permits = new Semaphore(batchMaxConcurrency);
+        long startTime = System.nanoTime();
+
+        List<Future<Map<String, Object>>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= count; i++) {
+                int fileNumber = i;
+                futures.add(executor.submit(() -> writeThenRead(baseFilename, fileNumber, permits)));
+            }
+
+            List<Map<String, Object>> files = new ArrayList<>(count);
+            long fileTimeTotal = 0;
+            for (Future<Map<String, Object>> future : futures) {
+                Map<String, Object> file = awaitFile(future, futures);
+                fileTimeTotal += (long) file.get("fileTime");
+                files.add(file);
+            }
+            long elapsedNanos = System.nanoTime() - startTime;
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("baseFilename", baseFilename);
+            result.put("fileCount", count);
+            result.put("maxConcurrency", batchMaxConcurrency);
+            result.put("files", files);
+            result.put("totalTime", elapsedNanos / 1_000_000);
+            result.put("sumOfFileTimes", fileTimeTotal);
+            result.put("effectiveParallelism", elapsedNanos == 0 ? 0 : fileTimeTotal * 1_000_000.0 / elapsedNanos);
+            result.put("threadName", Thread.currentThread().getName());
+            result.put("timestamp", System.currentTimeMillis());
+            result.put("operation", "batch");
+            return result;
+        }
+    }
+
+    private Map<String, Object> writeThenRead(String baseFilename, int fileNumber, Semaphore permits) throws InterruptedException {
+        long queuedAt = System.nanoTime();
+        permits.acquire();
+        try {
+            long startTime = System.nanoTime();
+            String filename = baseFilename + "_" + fileNumber + ".txt";
+            String content = "Content for file " + fileNumber + " created at " + System.currentTimeMillis();
+
             Map<String, Object> writeResult = slowFileWrite(filename, content);
-            results.add(writeResult);
-            
-            // Read file
             Map<String, Object> readResult = slowFileRead(filename);
-            results.add(readResult);
+            long fileNanos = System.nanoTime() - startTime;
+
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("filename", filename);
+            file.put("write", writeResult);
+            file.put("read", readResult);
+            file.put("waitTime", (startTime - queuedAt) / 1_000_000);
+            file.put("fileTime", fileNanos / 1_000_000);
+            return file;
+        } finally {
+            permits.release();
         }
+    }
 
-        return results;
+    private Map<String, Object> awaitFile(Future<Map<String, Object>> future, List<Future<Map<String, Object>>> all) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            all.forEach(other -> other.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("File batch interrupted", e);
+        } catch (ExecutionException e) {
+            // One failed file fails the batch; stop the files still waiting or running
+            all.forEach(other -> other.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("File batch operation failed", e.getCause());
+        }
     }
 
     /**
-     * Cleanup temporary files
+     * Deletes the temp files this service created under the given prefix (the filename up to the
+     * first '_' or '.'). Only the index is consulted; the temp directory is never listed.
      */
-    public void cleanupTempFiles(String pattern) {
-        try {
-            Files.list(Paths.get(tempDir))
-                .filter(path -> path.getFileName().toString().contains(pattern))
-                .forEach(path -> {
-                    try {
-                        Files.deleteIfExists(path);
-                    } catch (IOException e) {
-                        // Log error but continue cleanup
-                        System.err.println("Failed to delete file: " + path);
-                    }
-                });
-        } catch (IOException e) {
-            System.err.println("Failed to cleanup temp files: " + e.getMessage());
+    public Map<String, Object> cleanupTempFiles(String prefix) {
+        return tempFileIndex.expirePrefix(prefix);
+    }
+
+    private String prefixOf(String filename) {
+        for (int i = 0; i < filename.length(); i++) {
+            char c = filename.charAt(i);
+            if (c == '_' || c == '.') {
+                return i == 0 ? filename : filename.substring(0, i);
+            }
         }
+        return filename;
     }
-}
\ No newline at end of file
+}
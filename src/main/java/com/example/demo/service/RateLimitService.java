@@ -1,18 +1,94 @@
 package com.example.demo.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.ratelimit.KeyedLimiterRegistry;
+import com.example.demo.ratelimit.SlidingWindowCounter;
+import com.example.demo.ratelimit.TokenBucket;
+import com.example.demo.resilience.CallNotPermittedException;
+import com.example.demo.resilience.CircuitBreaker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 
 @Service
 public class RateLimitService {
 
-    private final Map<String, AtomicLong> lastRequestTime = new ConcurrentHashMap<>();
-    private final Map<String, Semaphore> rateLimitSemaphores = new ConcurrentHashMap<>();
+    // Keyed by caller-supplied ids, so each is capped at max-keys and drops idle keys
+    private KeyedLimiterRegistry<String, AtomicLong> lastRequestTime;
+    private KeyedLimiterRegistry<String, TokenBucket> tokenBuckets;
+    private KeyedLimiterRegistry<String, SlidingWindowCounter> slidingWindows;
+    private KeyedLimiterRegistry<String, CircuitBreaker> demoBreakers;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${app.rate-limit.sliding-window.sub-windows:10}")
+    private int slidingWindowSubWindows;
+
+    @Value("${app.rate-limit.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    @PostConstruct
+    public void init() {
+        Duration idleTimeout = Duration.ofMillis(idleTimeoutMs);
+        lastRequestTime = register("interval", new KeyedLimiterRegistry<>(maxKeys, idleTimeout));
+        // A bucket idle for its refill period is full again, and a window idle for its length is empty,
+        // so neither is dropped earlier than that: recreating it then changes nothing
+        tokenBuckets = register("token-bucket", new KeyedLimiterRegistry<>(maxKeys, idleTimeout,
+                bucket -> bucket.getRefillPeriod().toNanos()));
+        slidingWindows = register("sliding-window", new KeyedLimiterRegistry<>(maxKeys, idleTimeout,
+                SlidingWindowCounter::getWindowNanos));
+        // Not exported per id like the dependency breakers; an open breaker is kept for its open wait
+        demoBreakers = register("circuit-breaker", new KeyedLimiterRegistry<>(maxKeys, idleTimeout,
+                breaker -> breaker.getConfig().openWait().toNanos()));
+    }
+
+    private <V> KeyedLimiterRegistry<String, V> register(String limiter, KeyedLimiterRegistry<String, V> registry) {
+        Gauge.builder("rate.limit.keys", registry, KeyedLimiterRegistry::size)
+                .description("Keys currently holding limiter state")
+                .tag("limiter", limiter)
+                .register(meterRegistry);
+        FunctionCounter.builder("rate.limit.keys.removed", registry, KeyedLimiterRegistry::getExpiredCount)
+                .tags("limiter", limiter, "cause", "idle")
+                .register(meterRegistry);
+        FunctionCounter.builder("rate.limit.keys.removed", registry, KeyedLimiterRegistry::getEvictedCount)
+                .tags("limiter", limiter, "cause", "max_keys")
+                .register(meterRegistry);
+        return registry;
+    }
 
     /**
      * Simulates rate limiting with sleep
@@ -20,7 +96,7 @@ public class RateLimitService {
     public Map<String, Object> performRateLimitedOperation(String operationId, long minIntervalMs) {
         long startTime = System.currentTimeMillis();
         
-        AtomicLong lastTime = lastRequestTime.computeIfAbsent(operationId, k -> new AtomicLong(0));
+        AtomicLong lastTime = lastRequestTime.get(operationId, k -> new AtomicLong(0));
         long currentTime = System.currentTimeMillis();
         long timeSinceLastRequest = currentTime - lastTime.get();
         
@@ -59,144 +135,380 @@ public class RateLimitService {
     }
 
     /**
-     * Simulates token bucket rate limiting
+     * Token bucket rate limiting: maxTokens per bucket, refilled from empty to full over tokenRefillTime.
+     * A caller without a token is either rejected at once (status "rate_limited") or, with waitMs > 0,
+     * waits up to waitMs for its reserved token, blocking the request thread on the reservation
+     * (cheap on a virtual thread, a pooled thread held for the wait otherwise).
      */
-    public Map<String, Object> performTokenBucketOperation(String bucketId, int maxTokens, long tokenRefillTime) {
+    public Map<String, Object> performTokenBucketOperation(String bucketId, int maxTokens, long tokenRefillTime, long waitMs) {
         long startTime = System.currentTimeMillis();
-        
-        Semaphore semaphore = rateLimitSemaphores.computeIfAbsent(bucketId, k -> new Semaphore(maxTokens));
-        
+
+        TokenBucket bucket = tokenBuckets.get(bucketId,
+                k -> new TokenBucket(maxTokens, Duration.ofMillis(tokenRefillTime)));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("bucketId", bucketId);
+        response.put("maxTokens", bucket.getCapacity());
+        response.put("tokenRefillTime", bucket.getRefillPeriod().toMillis());
+
+        boolean acquired = waitMs > 0
+                ? await(bucket.acquireAsync(1, Duration.ofMillis(waitMs)))
+                : bucket.tryAcquire(1);
+        if (!acquired) {
+            response.put("status", "rate_limited");
+            response.put("retryAfterMs", bucket.timeUntilAvailable(1).toMillis());
+            response.put("availableTokens", bucket.availableTokens());
+            response.put("totalTime", System.currentTimeMillis() - startTime);
+            response.put("threadName", Thread.currentThread().getName());
+            return response;
+        }
+
         try {
-            // Try to acquire a token
-            semaphore.acquire();
-            
             // Simulate operation
             Thread.sleep(200);
-            
-            // Schedule token refill (simplified - in real implementation would use scheduler)
-            Thread.sleep(tokenRefillTime);
-            semaphore.release();
-            
-            long endTime = System.currentTimeMillis();
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("bucketId", bucketId);
-            response.put("maxTokens", maxTokens);
-            response.put("availableTokens", semaphore.availablePermits());
-            response.put("tokenRefillTime", tokenRefillTime);
-            response.put("totalTime", endTime - startTime);
-            response.put("threadName", Thread.currentThread().getName());
-            response.put("status", "success");
-            
-            return response;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("bucketId", bucketId);
             response.put("status", "interrupted");
             response.put("totalTime", System.currentTimeMillis() - startTime);
             response.put("threadName", Thread.currentThread().getName());
-            
             return response;
         }
+
+        response.put("availableTokens", bucket.availableTokens());
+        response.put("totalTime", System.currentTimeMillis() - startTime);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("status", "success");
+        return response;
     }
 
     /**
-     * Simulates sliding window rate limiting
+     * Acquire throughput of one shared token bucket with 1..n platform threads hammering tryAcquire.
+     * The bucket's rate is far above what the threads can take, so most calls succeed and every call
+     * contends on the same CAS. Also checks no more tokens were granted than the bucket allows.
      */
-    public Map<String, Object> performSlidingWindowOperation(String windowId, int maxRequests, long windowSizeMs) {
-        long startTime = System.currentTimeMillis();
-        
-        // Simulate checking request count in sliding window
-        try {
-            Thread.sleep(50); // Simulate window calculation time
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Window calculation interrupted", e);
+    public Map<String, Object> benchmarkTokenBucket(List<Integer> threadCounts, long durationMs) {
+        List<Map<String, Object>> runs = new ArrayList<>();
+
+        for (int threads : threadCounts) {
+            int capacity = 1_000;
+            Duration refillPeriod = Duration.ofMillis(1);
+            TokenBucket bucket = new TokenBucket(capacity, refillPeriod);
+
+            ContentionRun run = contend(threads, durationMs, (thread, call) -> bucket.tryAcquire(1));
+            // Full bucket at the start plus everything refilled during the run
+            long allowed = capacity + run.elapsedNanos() * capacity / refillPeriod.toNanos();
+
+            Map<String, Object> stats = run.toMap(threads);
+            stats.put("maxAllowed", allowed);
+            stats.put("withinLimit", run.granted() <= allowed);
+            runs.add(stats);
         }
-        
-        // Simulate rate limit enforcement
-        boolean rateLimited = Math.random() < 0.3; // 30% chance of being rate limited
-        
-        if (rateLimited) {
-            long waitTime = (long) (windowSizeMs * Math.random());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("durationMs", durationMs);
+        result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        result.put("runs", runs);
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * Check throughput of sliding windows with 1..n threads spread over the given number of keys,
+     * and a check that no key ever allowed more than its limit per window
+     */
+    public Map<String, Object> benchmarkSlidingWindow(List<Integer> threadCounts, int keys, long durationMs) {
+        List<Map<String, Object>> runs = new ArrayList<>();
+        int maxRequests = 10_000;
+        Duration window = Duration.ofMillis(100);
+
+        for (int threads : threadCounts) {
+            SlidingWindowCounter[] counters = new SlidingWindowCounter[keys];
+            for (int i = 0; i < keys; i++) {
+                counters[i] = new SlidingWindowCounter(maxRequests, window, slidingWindowSubWindows);
+            }
+            LongAdder[] grantedPerKey = new LongAdder[keys];
+            Arrays.setAll(grantedPerKey, i -> new LongAdder());
+
+            ContentionRun run = contend(threads, durationMs, (thread, call) -> {
+                int key = (int) ((thread + call) % keys);
+                if (counters[key].tryAcquire()) {
+                    grantedPerKey[key].increment();
+                    return true;
+                }
+                return false;
+            });
+            // Every window the run touched could have allowed maxRequests per key
+            long windows = run.elapsedNanos() / window.toNanos() + 1;
+            long maxGrantedForKey = Arrays.stream(grantedPerKey).mapToLong(LongAdder::sum).max().orElse(0);
+
+            Map<String, Object> stats = run.toMap(threads);
+            stats.put("keys", keys);
+            stats.put("maxGrantedForKey", maxGrantedForKey);
+            stats.put("maxAllowedPerKey", windows * maxRequests);
+            stats.put("withinLimit", maxGrantedForKey <= windows * maxRequests);
+            runs.add(stats);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("durationMs", durationMs);
+        result.put("maxRequests", maxRequests);
+        result.put("windowSizeMs", window.toMillis());
+        result.put("subWindows", slidingWindowSubWindows);
+        result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        result.put("runs", runs);
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * Feeds the given number of distinct keys through a token bucket registry with the configured
+     * max-keys, like a stream of ever-new operation ids. After each tenth of the run it records the
+     * key count, which stays flat once max-keys is reached, and the heap still in use after the
+     * latest collection. No collection is forced, so the heap figure lags the key count.
+     */
+    public Map<String, Object> benchmarkKeyChurn(int keys) {
+        KeyedLimiterRegistry<String, TokenBucket> registry =
+                new KeyedLimiterRegistry<>(maxKeys, Duration.ofMillis(idleTimeoutMs));
+        int step = Math.max(1, keys / 10);
+
+        List<Map<String, Object>> checkpoints = new ArrayList<>();
+        long insertNanos = 0;
+        long segmentStart = System.nanoTime();
+        for (int i = 1; i <= keys; i++) {
+            registry.get("op-" + i, k -> new TokenBucket(3, Duration.ofSeconds(1))).tryAcquire(1);
+            if (i % step == 0 || i == keys) {
+                insertNanos += System.nanoTime() - segmentStart;
+                Map<String, Object> checkpoint = new LinkedHashMap<>();
+                checkpoint.put("keysSeen", i);
+                checkpoint.put("keysHeld", registry.size());
+                checkpoint.put("evicted", registry.getEvictedCount());
+                checkpoint.put("heapAfterLastGcMb", heapAfterLastGc() / (1024 * 1024));
+                checkpoints.add(checkpoint);
+                segmentStart = System.nanoTime();
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("keys", keys);
+        result.put("maxKeys", maxKeys);
+        result.put("lookupsPerSecond", insertNanos > 0 ? keys * 1_000_000_000L / insertNanos : 0);
+        result.put("checkpoints", checkpoints);
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * Heap in use right after the most recent collection of each heap pool, without triggering one
+     */
+    private static long heapAfterLastGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Runs attempt in a tight loop on the given number of platform threads for durationMs. A failing
+     * attempt fails the whole run rather than leaving its thread's calls out of the counts.
+     */
+    private ContentionRun contend(int threads, long durationMs, Attempt attempt) {
+        LongAdder granted = new LongAdder();
+        LongAdder denied = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long[] window = new long[2];
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            workers.add(Thread.ofPlatform().name("rate-limit-bench-" + i).start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = window[0] + TimeUnit.MILLISECONDS.toNanos(durationMs);
+                long localGranted = 0;
+                long localDenied = 0;
+                try {
+                    for (long call = 0; System.nanoTime() < deadline; call++) {
+                        if (attempt.tryAcquire(thread, call)) {
+                            localGranted++;
+                        } else {
+                            localDenied++;
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+                granted.add(localGranted);
+                denied.add(localDenied);
+            }));
+        }
+
+        window[0] = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
             try {
-                Thread.sleep(waitTime);
+                worker.join();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                throw new RuntimeException("Rate limit wait interrupted", e);
+                throw new RuntimeException("Rate limiter benchmark interrupted", e);
             }
         }
-        
-        // Simulate actual operation
+        window[1] = System.nanoTime();
+        if (failure.get() != null) {
+            throw new RuntimeException("Rate limiter benchmark failed", failure.get());
+        }
+
+        return new ContentionRun(granted.sum(), denied.sum(), window[1] - window[0]);
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+
+        boolean tryAcquire(int thread, long call);
+    }
+
+    private record ContentionRun(long granted, long denied, long elapsedNanos) {
+
+        Map<String, Object> toMap(int threads) {
+            long calls = granted + denied;
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("threads", threads);
+            run.put("calls", calls);
+            run.put("granted", granted);
+            run.put("denied", denied);
+            run.put("callsPerSecond", calls * 1_000_000_000.0 / elapsedNanos);
+            run.put("nanosPerCall", calls == 0 ? 0 : (double) elapsedNanos * threads / calls);
+            return run;
+        }
+    }
+
+    private boolean await(CompletableFuture<Boolean> reservation) {
         try {
-            Thread.sleep(150);
+            return reservation.get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            throw new RuntimeException("Operation interrupted", e);
+            throw new RuntimeException("Token wait interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Token wait failed", e.getCause());
         }
-        
-        long endTime = System.currentTimeMillis();
-        
+    }
+
+    /**
+     * Sliding window rate limiting: at most maxRequests per windowSizeMs for each windowId.
+     * A request over the limit is rejected right away with the time until the window frees up.
+     */
+    public Map<String, Object> performSlidingWindowOperation(String windowId, int maxRequests, long windowSizeMs) {
+        long startTime = System.currentTimeMillis();
+
+        SlidingWindowCounter window = slidingWindows.get(windowId,
+                k -> new SlidingWindowCounter(maxRequests, Duration.ofMillis(windowSizeMs), slidingWindowSubWindows));
+        boolean rateLimited = !window.tryAcquire();
+
         Map<String, Object> response = new HashMap<>();
         response.put("windowId", windowId);
-        response.put("maxRequests", maxRequests);
+        response.put("maxRequests", window.getMaxRequests());
         response.put("windowSizeMs", windowSizeMs);
         response.put("rateLimited", rateLimited);
+        response.put("currentCount", window.currentCount());
+
+        if (rateLimited) {
+            response.put("retryAfterMs", window.timeUntilAllowed().toMillis());
+        } else {
+            // Simulate actual operation
+            try {
+                Thread.sleep(150);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Operation interrupted", e);
+            }
+        }
+
+        long endTime = System.currentTimeMillis();
         response.put("totalTime", endTime - startTime);
         response.put("threadName", Thread.currentThread().getName());
         response.put("timestamp", endTime);
-        
+
         return response;
     }
 
     /**
-     * Simulates circuit breaker with backoff
+     * Expires idle keys of all limiters; creating keys also expires whatever is due, this only
+     * reclaims memory while no new keys arrive
      */
-    public Map<String, Object> performCircuitBreakerOperation(String circuitId, long backoffTime) {
+    @Scheduled(fixedDelayString = "${app.rate-limit.idle-sweep-interval-ms:60000}")
+    public void expireIdleLimiters() {
+        lastRequestTime.expireIdle();
+        tokenBuckets.expireIdle();
+        slidingWindows.expireIdle();
+        demoBreakers.expireIdle();
+    }
+
+    /**
+     * Simulated 300ms operation through the circuit breaker for circuitId. The breaker is created on
+     * first use with backoffTime as its open wait; failureRate makes that share of operations fail so
+     * the breaker can be tripped. While the circuit is open the operation is not run at all.
+     */
+    public Map<String, Object> performCircuitBreakerOperation(String circuitId, long backoffTime, double failureRate) {
         long startTime = System.currentTimeMillis();
-        
-        // Simulate circuit breaker state check
-        boolean circuitOpen = Math.random() < 0.2; // 20% chance circuit is open
-        
-        if (circuitOpen) {
-            // Circuit is open, wait for backoff period
-            try {
-                Thread.sleep(backoffTime);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Circuit breaker backoff interrupted", e);
-            }
-        }
-        
-        // Simulate operation
+
+        // Prefixed so demo circuits never share a name with a real dependency's breaker
+        CircuitBreaker breaker = demoBreakers.get("demo-" + circuitId,
+                name -> circuitBreakers.newBreaker(name, Duration.ofMillis(backoffTime)));
+
+        Map<String, Object> response = new HashMap<>();
         try {
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Circuit breaker operation interrupted", e);
+            breaker.execute(() -> {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Circuit breaker operation interrupted", e);
+                }
+                if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                    throw new RuntimeException("Simulated failure in " + circuitId);
+                }
+                return null;
+            });
+            response.put("status", "success");
+        } catch (CallNotPermittedException e) {
+            response.put("status", "circuit_open");
+            response.put("retryAfterMs", e.getRetryAfter().toMillis());
+        } catch (RuntimeException e) {
+            response.put("status", "failed");
+            response.put("error", e.getMessage());
         }
-        
+
         long endTime = System.currentTimeMillis();
-        
-        Map<String, Object> response = new HashMap<>();
+
         response.put("circuitId", circuitId);
-        response.put("circuitOpen", circuitOpen);
-        response.put("backoffTime", backoffTime);
+        response.put("circuitOpen", breaker.getState() == CircuitBreaker.State.OPEN);
+        response.put("state", breaker.getState().name());
+        response.put("failureRate", breaker.getFailureRate());
+        response.put("slowCallRate", breaker.getSlowCallRate());
+        response.put("bufferedCalls", breaker.getBufferedCalls());
+        response.put("backoffTime", breaker.getConfig().openWait().toMillis());
         response.put("totalTime", endTime - startTime);
         response.put("threadName", Thread.currentThread().getName());
         response.put("timestamp", endTime);
-        
+
         return response;
     }
 
     /**
-     * Reset all rate limiters
+     * Reset all rate limiters and demo circuit breakers
      */
     public void resetRateLimiters() {
         lastRequestTime.clear();
-        rateLimitSemaphores.clear();
+        tokenBuckets.clear();
+        slidingWindows.clear();
+        demoBreakers.clear();
     }
 
     /**
@@ -205,16 +517,45 @@ public class RateLimitService {
     public Map<String, Object> getRateLimiterStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        Map<String, Object> semaphoreStats = new HashMap<>();
-        rateLimitSemaphores.forEach((key, semaphore) -> {
-            Map<String, Object> semStats = new HashMap<>();
-            semStats.put("availablePermits", semaphore.availablePermits());
-            semStats.put("queueLength", semaphore.getQueueLength());
-            semaphoreStats.put(key, semStats);
+        Map<String, Object> bucketStats = new HashMap<>();
+        tokenBuckets.forEach((key, bucket) -> {
+            Map<String, Object> stat = new HashMap<>();
+            stat.put("availableTokens", bucket.availableTokens());
+            stat.put("capacity", bucket.getCapacity());
+            bucketStats.put(key, stat);
         });
         
         stats.put("activeOperations", lastRequestTime.size());
-        stats.put("semaphoreStats", semaphoreStats);
+        stats.put("tokenBucketStats", bucketStats);
+        stats.put("maxKeys", maxKeys);
+        stats.put("keysRemoved", Map.of(
+                "interval", lastRequestTime.getExpiredCount() + lastRequestTime.getEvictedCount(),
+                "tokenBucket", tokenBuckets.getExpiredCount() + tokenBuckets.getEvictedCount(),
+                "slidingWindow", slidingWindows.getExpiredCount() + slidingWindows.getEvictedCount(),
+                "circuitBreaker", demoBreakers.getExpiredCount() + demoBreakers.getEvictedCount()));
+
+        Map<String, Object> windowStats = new HashMap<>();
+        slidingWindows.forEach((key, window) -> {
+            Map<String, Object> stat = new HashMap<>();
+            stat.put("currentCount", window.currentCount());
+            stat.put("maxRequests", window.getMaxRequests());
+            windowStats.put(key, stat);
+        });
+        stats.put("slidingWindowStats", windowStats);
+
+        Map<String, Object> breakerStats = new HashMap<>();
+        BiConsumer<String, CircuitBreaker> addBreakerStat = (name, breaker) -> {
+            Map<String, Object> stat = new HashMap<>();
+            stat.put("state", breaker.getState().name());
+            stat.put("failureRate", breaker.getFailureRate());
+            stat.put("slowCallRate", breaker.getSlowCallRate());
+            stat.put("bufferedCalls", breaker.getBufferedCalls());
+            stat.put("notPermittedCalls", breaker.getRejectedCalls());
+            breakerStats.put(name, stat);
+        };
+        circuitBreakers.getBreakers().forEach(addBreakerStat);
+        demoBreakers.forEach(addBreakerStat);
+        stats.put("circuitBreakerStats", breakerStats);
         stats.put("timestamp", System.currentTimeMillis());
         
         return stats;
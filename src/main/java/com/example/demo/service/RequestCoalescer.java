@@ -0,0 +1,140 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer: concurrent calls with the same group and key share one in-flight execution.
+ * Only calls that overlap in time are merged; nothing is cached once the call completes.
+ */
+@Service
+public class RequestCoalescer {
+
+    @Value("${app.coalescing.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, GroupStats> groupStats = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs the call, or waits for the identical call already in flight and returns its result
+     */
+    public <T> T execute(String group, String key, Supplier<T> call) {
+        String flightKey = group + ":" + key;
+        CompletableFuture<T> placeholder = new CompletableFuture<>();
+        CompletableFuture<T> existing = join(group, flightKey, placeholder);
+
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            T result = call.get();
+            inFlight.remove(flightKey, placeholder);
+            placeholder.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors too, or followers would wait forever on a placeholder nobody completes
+            inFlight.remove(flightKey, placeholder);
+            placeholder.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Async variant. Each caller gets its own copy of the shared future, so one caller cancelling
+     * does not cancel the others.
+     */
+    public <T> CompletableFuture<T> executeAsync(String group, String key, Supplier<CompletableFuture<T>> call) {
+        String flightKey = group + ":" + key;
+        CompletableFuture<T> placeholder = new CompletableFuture<>();
+        CompletableFuture<T> existing = join(group, flightKey, placeholder);
+
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            call.get().whenComplete((result, error) -> {
+                inFlight.remove(flightKey, placeholder);
+                if (error != null) {
+                    placeholder.completeExceptionally(error);
+                } else {
+                    placeholder.complete(result);
+                }
+            });
+        } catch (Throwable e) {
+            inFlight.remove(flightKey, placeholder);
+            placeholder.completeExceptionally(e);
+        }
+        return placeholder.copy();
+    }
+
+    /**
+     * Registers the placeholder as the leader, or returns the in-flight future to follow
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> join(String group, String flightKey, CompletableFuture<T> placeholder) {
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(flightKey, placeholder);
+        GroupStats stats = groupStats.computeIfAbsent(group, this::registerGroup);
+        if (existing != null) {
+            stats.followers.increment();
+        } else {
+            stats.leaders.increment();
+        }
+        return existing;
+    }
+
+    private <T> T await(CompletableFuture<T> shared) {
+        try {
+            return shared.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Coalesced call interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Coalesced call failed", e.getCause());
+        }
+    }
+
+    private GroupStats registerGroup(String group) {
+        GroupStats stats = new GroupStats(
+                Counter.builder("coalescing.calls").tag("group", group).tag("role", "leader")
+                        .description("Calls that executed downstream").register(meterRegistry),
+                Counter.builder("coalescing.calls").tag("group", group).tag("role", "follower")
+                        .description("Calls served by an identical in-flight call").register(meterRegistry));
+
+        Gauge.builder("coalescing.ratio", stats, GroupStats::ratio).tag("group", group)
+                .description("Share of calls that were coalesced").register(meterRegistry);
+        return stats;
+    }
+
+    private record GroupStats(Counter leaders, Counter followers) {
+
+        double ratio() {
+            double total = leaders.count() + followers.count();
+            return total == 0 ? 0.0 : followers.count() / total;
+        }
+    }
+}
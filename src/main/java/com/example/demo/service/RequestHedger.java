@@ -0,0 +1,212 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests: if the first attempt has not answered after the observed latency percentile,
+ * a duplicate attempt is fired. The first response wins and the other attempt is cancelled.
+ * Hedges are paid for from a budget that only grows with primary requests, so hedging can add
+ * at most budget-ratio extra load.
+ */
+@Service
+public class RequestHedger {
+
+    private static final long CREDIT_UNIT = 1000;
+
+    @Value("${app.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.hedging.delay-percentile:0.95}")
+    private double delayPercentile;
+
+    @Value("${app.hedging.initial-delay-ms:1000}")
+    private long initialDelayMs;
+
+    @Value("${app.hedging.min-delay-ms:10}")
+    private long minDelayMs;
+
+    @Value("${app.hedging.min-samples:20}")
+    private long minSamples;
+
+    @Value("${app.hedging.budget-ratio:0.1}")
+    private double budgetRatio;
+
+    @Value("${app.hedging.max-burst:10}")
+    private int maxBurst;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "request-hedger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Hedge credit in thousandths of a request
+     */
+    private final AtomicLong credits = new AtomicLong();
+
+    private Timer attemptLatency;
+
+    private Counter primaryWins;
+
+    private Counter hedgeWins;
+
+    private Counter hedgesIssued;
+
+    private Counter hedgesDenied;
+
+    @PostConstruct
+    public void init() {
+        attemptLatency = Timer.builder("hedging.attempt.latency")
+                .description("Latency of individual downstream attempts")
+                .publishPercentiles(delayPercentile)
+                .register(meterRegistry);
+        primaryWins = Counter.builder("hedging.wins").tag("winner", "primary").register(meterRegistry);
+        hedgeWins = Counter.builder("hedging.wins").tag("winner", "hedge").register(meterRegistry);
+        hedgesIssued = Counter.builder("hedging.hedges").tag("result", "issued").register(meterRegistry);
+        hedgesDenied = Counter.builder("hedging.hedges").tag("result", "budget_exhausted").register(meterRegistry);
+        Gauge.builder("hedging.delay", this, RequestHedger::currentDelayMs)
+                .description("Current delay before a hedge is fired")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs the attempt, hedging it once if it is slower than the current hedge delay
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> attempt) {
+        deposit();
+
+        long requestStart = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        AtomicInteger outstanding = new AtomicInteger();
+
+        launch(attempt, result, attempts, outstanding, requestStart, false);
+
+        ScheduledFuture<?> hedgeTimer = scheduler.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!withdraw()) {
+                hedgesDenied.increment();
+                return;
+            }
+            hedgesIssued.increment();
+            launch(attempt, result, attempts, outstanding, requestStart, true);
+        }, currentDelayMs(), TimeUnit.MILLISECONDS);
+
+        // Whoever finishes first (or a caller timeout/cancel) stops the timer and the losing attempt
+        result.whenComplete((value, error) -> {
+            hedgeTimer.cancel(false);
+            attempts.forEach(running -> running.cancel(true));
+        });
+
+        return result;
+    }
+
+    private <T> void launch(Supplier<CompletableFuture<T>> attempt, CompletableFuture<T> result,
+                            List<CompletableFuture<T>> attempts, AtomicInteger outstanding,
+                            long requestStart, boolean hedge) {
+        long startTime = System.nanoTime();
+        outstanding.incrementAndGet();
+
+        CompletableFuture<T> running;
+        try {
+            running = attempt.get();
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+        attempts.add(running);
+        // The result may have completed before this attempt was listed (a hedge fired just as the
+        // primary answered); the cancel loop in execute has then already run without it
+        boolean listedLate = result.isDone();
+        if (listedLate) {
+            running.cancel(true);
+        }
+
+        running.whenComplete((value, error) -> {
+            if (error == null) {
+                attemptLatency.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            } else if (error instanceof CancellationException && !listedLate) {
+                // A cancelled loser would have needed at least as long as the whole request took; its
+                // own elapsed time is near zero for a hedge that lost right after firing
+                attemptLatency.record(System.nanoTime() - requestStart, TimeUnit.NANOSECONDS);
+            }
+            if (error == null) {
+                if (result.complete(value)) {
+                    (hedge ? hedgeWins : primaryWins).increment();
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                // Fail only once no attempt is left that could still succeed
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    /**
+     * Delay before hedging: the configured percentile of observed attempt latency
+     */
+    private long currentDelayMs() {
+        if (attemptLatency.count() < minSamples) {
+            return initialDelayMs;
+        }
+        for (ValueAtPercentile percentile : attemptLatency.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == delayPercentile) {
+                return Math.max(minDelayMs, Math.round(percentile.value(TimeUnit.MILLISECONDS)));
+            }
+        }
+        return initialDelayMs;
+    }
+
+    private void deposit() {
+        long deposit = (long) (budgetRatio * CREDIT_UNIT);
+        long max = maxBurst * CREDIT_UNIT;
+        credits.getAndUpdate(current -> Math.min(max, current + deposit));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < CREDIT_UNIT) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - CREDIT_UNIT));
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -3,8 +3,11 @@ package com.example.demo.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Service
 public class ServiceA {
@@ -15,6 +18,9 @@ public class ServiceA {
     @Autowired
     private ExternalApiService externalApiService;
 
+    @Autowired
+    private FanOutService fanOutService;
+
     /**
      * Service A operation that calls Service B
      */
@@ -113,17 +119,35 @@ public class ServiceA {
         
         Map<String, Object> response = new HashMap<>();
         
-        // Multiple Service B calls
-        for (int i = 1; i <= serviceBCallCount; i++) {
-            Map<String, Object> serviceBResult = serviceB.performServiceBOperation(requestId + "_call_" + i);
-            response.put("serviceBResult_" + i, serviceBResult);
+        if (fanOutService.isEnabled()) {
+            // Service B calls are independent, so run them concurrently
+            List<Callable<Map<String, Object>>> calls = new ArrayList<>();
+            for (int i = 1; i <= serviceBCallCount; i++) {
+                String callRequestId = requestId + "_call_" + i;
+                calls.add(() -> {
+                    Map<String, Object> serviceBResult = serviceB.performServiceBOperation(callRequestId);
+                    Thread.sleep(100); // Per-call processing
+                    return serviceBResult;
+                });
+            }
             
-            // Small delay between calls
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Service A inter-call processing interrupted", e);
+            List<Map<String, Object>> serviceBResults = fanOutService.invokeAll(calls);
+            for (int i = 1; i <= serviceBResults.size(); i++) {
+                response.put("serviceBResult_" + i, serviceBResults.get(i - 1));
+            }
+        } else {
+            // Multiple Service B calls
+            for (int i = 1; i <= serviceBCallCount; i++) {
+                Map<String, Object> serviceBResult = serviceB.performServiceBOperation(requestId + "_call_" + i);
+                response.put("serviceBResult_" + i, serviceBResult);
+                
+                // Small delay between calls
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Service A inter-call processing interrupted", e);
+                }
             }
         }
         
@@ -140,6 +164,7 @@ public class ServiceA {
         response.put("service", "ServiceA");
         response.put("requestId", requestId);
         response.put("serviceBCallCount", serviceBCallCount);
+        response.put("executionMode", fanOutService.isEnabled() ? "fan-out" : "sequential");
         response.put("serviceAProcessingTime", 500 + (serviceBCallCount * 100)); // 200 + 300 + (calls * 100)
         response.put("totalTime", endTime - startTime);
         response.put("threadName", Thread.currentThread().getName());
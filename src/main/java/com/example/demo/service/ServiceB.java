@@ -3,8 +3,14 @@ package com.example.demo.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.dto.TestEntityView;
+import com.example.demo.entity.TestEntity;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Service
 public class ServiceB {
@@ -15,6 +21,15 @@ public class ServiceB {
     @Autowired
     private DatabaseService databaseService;
 
+    @Autowired
+    private FanOutService fanOutService;
+
+    @Autowired
+    private DatabaseWriteBehindService databaseWriteBehindService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
     /**
      * Service B operation that calls Service C
      */
@@ -68,8 +83,12 @@ public class ServiceB {
             throw new RuntimeException("Service B processing interrupted", e);
         }
         
-        // Database operation
-        var dbResult = databaseService.slowInsert("ServiceB_" + requestId, "Data from Service B");
+        // Database operation (queued and group-committed in write-behind mode), guarded by the
+        // database breaker so a failing database is not handed another connection per request
+        TestEntity dbResult = circuitBreakers.execute(CircuitBreakerRegistry.DATABASE,
+                () -> databaseWriteBehindService.isEnabled()
+                        ? databaseWriteBehindService.insert(new TestEntity("ServiceB_" + requestId, "Data from Service B"))
+                        : databaseService.slowInsert("ServiceB_" + requestId, "Data from Service B"));
         
         // Call Service C
         Map<String, Object> serviceCResult = serviceC.performServiceCOperation(requestId + "_from_B_db");
@@ -87,7 +106,7 @@ public class ServiceB {
         Map<String, Object> response = new HashMap<>();
         response.put("service", "ServiceB");
         response.put("requestId", requestId);
-        response.put("databaseResult", dbResult);
+        response.put("databaseResult", TestEntityView.from(dbResult));
         response.put("serviceCResult", serviceCResult);
         response.put("serviceBProcessingTime", 450); // 250 + 200
         response.put("totalTime", endTime - startTime);
@@ -113,10 +132,24 @@ public class ServiceB {
         
         Map<String, Object> response = new HashMap<>();
         
-        // Simulate parallel calls (but actually sequential for thread blocking demonstration)
-        for (int i = 1; i <= parallelCallCount; i++) {
-            Map<String, Object> serviceCResult = serviceC.performServiceCOperation(requestId + "_parallel_" + i);
-            response.put("serviceCResult_" + i, serviceCResult);
+        if (fanOutService.isEnabled()) {
+            // Real parallel calls, cancelled together on the first failure
+            List<Callable<Map<String, Object>>> calls = new ArrayList<>();
+            for (int i = 1; i <= parallelCallCount; i++) {
+                String callRequestId = requestId + "_parallel_" + i;
+                calls.add(() -> serviceC.performServiceCOperation(callRequestId));
+            }
+            
+            List<Map<String, Object>> serviceCResults = fanOutService.invokeAll(calls);
+            for (int i = 1; i <= serviceCResults.size(); i++) {
+                response.put("serviceCResult_" + i, serviceCResults.get(i - 1));
+            }
+        } else {
+            // Simulate parallel calls (but actually sequential for thread blocking demonstration)
+            for (int i = 1; i <= parallelCallCount; i++) {
+                Map<String, Object> serviceCResult = serviceC.performServiceCOperation(requestId + "_parallel_" + i);
+                response.put("serviceCResult_" + i, serviceCResult);
+            }
         }
         
         // Final Service B processing
@@ -132,6 +165,7 @@ public class ServiceB {
         response.put("service", "ServiceB");
         response.put("requestId", requestId);
         response.put("parallelCallCount", parallelCallCount);
+        response.put("executionMode", fanOutService.isEnabled() ? "fan-out" : "sequential");
         response.put("serviceBProcessingTime", 550); // 300 + 250
         response.put("totalTime", endTime - startTime);
         response.put("threadName", Thread.currentThread().getName());
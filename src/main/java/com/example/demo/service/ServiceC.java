@@ -5,6 +5,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @Service
 public class ServiceC {
@@ -58,6 +60,9 @@ public class ServiceC {
      * Service C operation with file I/O
      */
     public Map<String, Object> performServiceCWithFileIO(String requestId) {
+        if (fileIOService.isAsyncEnabled()) {
+            return performServiceCWithAsyncFileIO(requestId);
+        }
         long startTime = System.currentTimeMillis();
         
         // Service C processing
@@ -99,6 +104,54 @@ public class ServiceC {
         return response;
     }
 
+    /**
+     * performServiceCWithFileIO with async file I/O: the write-then-read runs while Service C does its
+     * own processing, instead of after it
+     */
+    private Map<String, Object> performServiceCWithAsyncFileIO(String requestId) {
+        long startTime = System.currentTimeMillis();
+        String filename = "ServiceC_" + requestId + ".txt";
+
+        CompletableFuture<Map<String, Object>> fileResult = fileIOService.fileWriteAsync(
+                filename, "Data from Service C for request " + requestId);
+        CompletableFuture<Map<String, Object>> readResult = fileResult.thenCompose(
+                written -> fileIOService.fileReadAsync(filename));
+
+        // Service C processing, overlapped with the file I/O
+        try {
+            Thread.sleep(350);
+        } catch (InterruptedException e) {
+            readResult.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Service C file processing interrupted", e);
+        }
+
+        Map<String, Object> written = await(fileResult);
+        Map<String, Object> read = await(readResult);
+
+        // Final processing
+        try {
+            Thread.sleep(250);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Service C final file processing interrupted", e);
+        }
+
+        long endTime = System.currentTimeMillis();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("service", "ServiceC");
+        response.put("requestId", requestId);
+        response.put("fileWriteResult", written);
+        response.put("fileReadResult", read);
+        response.put("serviceCProcessingTime", 600); // 350 + 250
+        response.put("totalTime", endTime - startTime);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", endTime);
+
+        return response;
+    }
+
     /**
      * Service C operation with multiple external calls
      */
@@ -154,6 +207,9 @@ public class ServiceC {
      * Service C operation with combined I/O
      */
     public Map<String, Object> performServiceCWithCombinedIO(String requestId) {
+        if (fileIOService.isAsyncEnabled()) {
+            return performServiceCWithAsyncCombinedIO(requestId);
+        }
         long startTime = System.currentTimeMillis();
         
         // Service C processing
@@ -195,6 +251,56 @@ public class ServiceC {
         return response;
     }
 
+    /**
+     * performServiceCWithCombinedIO with async I/O. The file holds the API result, so the write is
+     * chained onto the API call; both run while Service C does its own processing.
+     */
+    private Map<String, Object> performServiceCWithAsyncCombinedIO(String requestId) {
+        long startTime = System.currentTimeMillis();
+
+        CompletableFuture<Map<String, Object>> apiResult = externalApiService.callExternalApiAsync(requestId + "_combined");
+        CompletableFuture<Map<String, Object>> fileResult = apiResult.thenCompose(api -> fileIOService.fileWriteAsync(
+                "ServiceC_combined_" + requestId + ".txt",
+                "Combined data: " + api.toString()));
+
+        // Service C processing, overlapped with the API call
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            apiResult.cancel(true);
+            fileResult.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Service C combined IO processing interrupted", e);
+        }
+
+        Map<String, Object> api = await(apiResult);
+
+        // Final processing, overlapped with the file write
+        try {
+            Thread.sleep(150);
+        } catch (InterruptedException e) {
+            fileResult.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Service C final combined processing interrupted", e);
+        }
+
+        Map<String, Object> file = await(fileResult);
+
+        long endTime = System.currentTimeMillis();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("service", "ServiceC");
+        response.put("requestId", requestId);
+        response.put("externalApiResult", api);
+        response.put("fileResult", file);
+        response.put("serviceCProcessingTime", 450); // 300 + 150
+        response.put("totalTime", endTime - startTime);
+        response.put("threadName", Thread.currentThread().getName());
+        response.put("timestamp", endTime);
+
+        return response;
+    }
+
     /**
      * Simple Service C operation for basic nesting
      */
@@ -222,4 +328,19 @@ public class ServiceC {
         
         return response;
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> await(CompletableFuture<Map<String, Object>> operation) {
+        try {
+            return operation.get();
+        } catch (InterruptedException e) {
+            operation.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Service C async operation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Service C async operation failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Index of the temp files created by this application, so cleanup never has to list the temp
+ * directory. Files are queued per prefix in creation order; the sweeper only looks at queue heads
+ * and deletes at most sweep-batch-size expired files per run. Each run picks up after the prefix
+ * where the last one stopped, so a prefix with many expired files cannot starve the others, and
+ * emptied queues are dropped, so prefixes that are no longer written do not accumulate.
+ * Rewriting a tracked path re-registers it, and the superseded queue entry is skipped when reached.
+ */
+@Service
+public class TempFileIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TempFileIndex.class);
+
+    @Value("${app.file-io.cleanup.ttl-ms:3600000}")
+    private long ttlMs;
+
+    @Value("${app.file-io.cleanup.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Path, TrackedFile> files = new ConcurrentHashMap<>();
+
+    private final Map<String, Queue<TrackedFile>> byPrefix = new ConcurrentHashMap<>();
+
+    /**
+     * Position in the prefix list after the one where the last sweep ran out of batch; only
+     * touched by the scheduled sweep
+     */
+    private int nextSweepStart;
+
+    private Counter filesReclaimed;
+
+    private Counter bytesReclaimed;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("file.cleanup.tracked", files, Map::size)
+                .description("Temp files currently tracked for cleanup")
+                .register(meterRegistry);
+        filesReclaimed = Counter.builder("file.cleanup.files.reclaimed")
+                .description("Temp files deleted by cleanup")
+                .register(meterRegistry);
+        bytesReclaimed = Counter.builder("file.cleanup.bytes.reclaimed")
+                .description("Bytes freed by deleting temp files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a file just created (or rewritten) under the given prefix
+     */
+    public void track(Path path, String prefix) {
+        TrackedFile file = new TrackedFile(path, System.currentTimeMillis());
+        files.put(path, file);
+        // Added inside compute so it cannot land in a queue that dropEmpty is removing
+        byPrefix.compute(prefix, (key, queue) -> {
+            Queue<TrackedFile> target = queue != null ? queue : new ConcurrentLinkedQueue<>();
+            target.add(file);
+            return target;
+        });
+    }
+
+    /**
+     * Deletes every tracked file with this prefix regardless of age
+     */
+    public Map<String, Object> expirePrefix(String prefix) {
+        Queue<TrackedFile> queue = byPrefix.get(prefix);
+        Reclaimed reclaimed = new Reclaimed();
+        if (queue != null) {
+            TrackedFile file;
+            while ((file = queue.poll()) != null) {
+                reclaim(file, reclaimed);
+            }
+            dropEmpty(prefix);
+        }
+        return reclaimed.toMap(prefix);
+    }
+
+    /**
+     * Deletes tracked files older than the TTL, oldest first per prefix, bounded by the batch size
+     */
+    @Scheduled(fixedDelayString = "${app.file-io.cleanup.sweep-interval-ms:60000}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        Reclaimed reclaimed = new Reclaimed();
+
+        List<String> prefixes = new ArrayList<>(byPrefix.keySet());
+        int start = prefixes.isEmpty() ? 0 : nextSweepStart % prefixes.size();
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get((start + i) % prefixes.size());
+            Queue<TrackedFile> queue = byPrefix.get(prefix);
+            if (queue == null) {
+                continue;
+            }
+            TrackedFile head;
+            while (reclaimed.visited < sweepBatchSize
+                    && (head = queue.peek()) != null
+                    && head.createdAt() <= cutoff) {
+                // Only the caller whose remove succeeds owns the entry (expirePrefix may race)
+                if (queue.remove(head)) {
+                    reclaim(head, reclaimed);
+                }
+            }
+            dropEmpty(prefix);
+            if (reclaimed.visited >= sweepBatchSize) {
+                nextSweepStart = (start + i + 1) % prefixes.size();
+                break;
+            }
+        }
+
+        if (reclaimed.files > 0) {
+            logger.info("🧹 [TEMP-CLEANUP] Swept {} expired files | Bytes: {} | Still tracked: {}",
+                    reclaimed.files, reclaimed.bytes, files.size());
+        }
+    }
+
+    private void dropEmpty(String prefix) {
+        byPrefix.computeIfPresent(prefix, (key, queue) -> queue.isEmpty() ? null : queue);
+    }
+
+    private void reclaim(TrackedFile file, Reclaimed reclaimed) {
+        reclaimed.visited++;
+        // A newer registration for the same path owns the file now
+        if (!files.remove(file.path(), file)) {
+            return;
+        }
+        try {
+            long size = Files.size(file.path());
+            Files.delete(file.path());
+            reclaimed.files++;
+            reclaimed.bytes += size;
+            filesReclaimed.increment();
+            bytesReclaimed.increment(size);
+        } catch (NoSuchFileException e) {
+            // Already deleted elsewhere; dropping it from the index is all that is left to do
+        } catch (IOException e) {
+            logger.warn("⚠️ [TEMP-CLEANUP] Failed to delete {} | Error: {}", file.path(), e.getMessage());
+        }
+    }
+
+    /**
+     * Compared by identity, so a re-registration of the same path never matches the entry it superseded
+     */
+    private static final class TrackedFile {
+
+        private final Path path;
+
+        private final long createdAt;
+
+        TrackedFile(Path path, long createdAt) {
+            this.path = path;
+            this.createdAt = createdAt;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        long createdAt() {
+            return createdAt;
+        }
+    }
+
+    private static class Reclaimed {
+
+        private int visited;
+
+        private int files;
+
+        private long bytes;
+
+        Map<String, Object> toMap(String prefix) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("prefix", prefix);
+            result.put("filesReclaimed", files);
+            result.put("bytesReclaimed", bytes);
+            result.put("timestamp", System.currentTimeMillis());
+            return result;
+        }
+    }
+}
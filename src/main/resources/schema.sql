@@ -0,0 +1,7 @@
+-- Runs after Hibernate has created the tables (spring.jpa.defer-datasource-initialization=true)
+
+-- H2 native full-text index on test_data.test_value, kept in sync by H2's own triggers.
+-- Matching is per word: "Value_42" is indexed as the words VALUE and 42.
+CREATE ALIAS IF NOT EXISTS FT_INIT FOR 'org.h2.fulltext.FullText.init';
+CALL FT_INIT();
+CALL FT_CREATE_INDEX('PUBLIC', 'TEST_DATA', 'TEST_VALUE');
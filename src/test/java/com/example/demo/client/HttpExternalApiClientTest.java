@@ -0,0 +1,92 @@
+package com.example.demo.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.demo.controller.StubExternalApiController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * HttpExternalApiClient against the local StubExternalApiController over real HTTP
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.external-api-delay=50")
+class HttpExternalApiClientTest {
+
+    private static final int MAX_CONNECTIONS_PER_HOST = 4;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StubExternalApiController stub;
+
+    private HttpExternalApiClient client;
+
+    @BeforeEach
+    void createClient() {
+        // The random port is only known once the server is up, so the client is built here, not as a bean
+        client = new HttpExternalApiClient("http://localhost:" + port + "/api/stub/external",
+                Duration.ofSeconds(2), Duration.ofSeconds(10), MAX_CONNECTIONS_PER_HOST, objectMapper);
+    }
+
+    @AfterEach
+    void closeClient() {
+        client.close();
+    }
+
+    @Test
+    void callReturnsTheStubResponse() {
+        Map<String, Object> response = client.call("request-1");
+
+        assertThat(response)
+                .containsEntry("requestId", "request-1")
+                .containsEntry("status", "success")
+                .containsEntry("data", "External API response for request-1")
+                .containsEntry("httpStatus", 200)
+                .containsEntry("engine", "http");
+        assertThat((Long) response.get("latency")).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    void concurrentCallsBeyondTheHostLimitAllCompleteWithinIt() {
+        stub.resetPeakInFlight();
+        List<CompletableFuture<Map<String, Object>>> calls = IntStream.range(0, 20)
+                .mapToObj(i -> client.callAsync("request-" + i))
+                .toList();
+
+        for (int i = 0; i < calls.size(); i++) {
+            assertThat(calls.get(i).join()).containsEntry("requestId", "request-" + i);
+        }
+        assertThat(stub.getPeakInFlight()).isBetween(1, MAX_CONNECTIONS_PER_HOST);
+    }
+
+    @Test
+    void unknownPathFailsTheCall() {
+        HttpExternalApiClient wrongPath = new HttpExternalApiClient("http://localhost:" + port + "/api/stub/missing",
+                Duration.ofSeconds(2), Duration.ofSeconds(10), MAX_CONNECTIONS_PER_HOST, objectMapper);
+        try {
+            assertThat(wrongPath.callAsync("request-1"))
+                    .failsWithin(Duration.ofSeconds(10))
+                    .withThrowableOfType(Exception.class)
+                    .withMessageContaining("HTTP 404");
+        } finally {
+            wrongPath.close();
+        }
+    }
+}